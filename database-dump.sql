@@ -20,6 +20,8 @@ CREATE TABLE transactions (
 );
 
 CREATE INDEX idx_transaction_category ON transactions(category_id);
+CREATE INDEX idx_transaction_time_id ON transactions(time, id);
+CREATE INDEX idx_transaction_category_time_id ON transactions(category_id, time, id);
 
 INSERT INTO categories (type, name) VALUES ('INCOME', 'Salary');
 INSERT INTO categories (type, name) VALUES ('INCOME', 'Freelance');
@@ -0,0 +1,109 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load shared by the load tests: {@code clients} concurrent clients loop over a mix of read
+ * endpoints (or the requests of a given {@link Requests}) until the duration is over, each sending its next
+ * request as soon as the previous one returns.
+ */
+final class ClosedLoopLoad {
+
+	private static final List<String> PATHS = List.of(
+			"/api/transactions/page?size=50",
+			"/api/categories/expenses/summary",
+			"/api/transactions/search?type=EXPENSE&size=50",
+			"/api/categories");
+
+	@FunctionalInterface
+	interface Requests {
+		HttpRequest next(int port, int client, int iteration);
+	}
+
+	static final Requests READS = (port, client, iteration) -> HttpRequest.newBuilder(
+			URI.create("http://localhost:" + port + PATHS.get(iteration % PATHS.size()))).build();
+
+	static final String HEADER = String.format("%-10s %12s %10s %10s %8s", "mode", "requests/s", "p50 ms", "p99 ms", "errors");
+
+	private ClosedLoopLoad() {
+	}
+
+	static Result run(int port, int clients, Duration duration) throws Exception {
+		return run(port, clients, duration, READS);
+	}
+
+	static Result run(int port, int clients, Duration duration, Requests requests) throws Exception {
+		HttpClient http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+		long deadline = System.nanoTime() + duration.toNanos();
+		List<Future<long[]>> futures = new ArrayList<>(clients);
+		int[] errors = new int[clients];
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int client = 0; client < clients; client++) {
+				int id = client;
+				futures.add(executor.submit(() -> loop(http, port, id, deadline, errors, requests)));
+			}
+		}
+		long[] all = futures.stream().map(ClosedLoopLoad::join).flatMapToLong(Arrays::stream).sorted().toArray();
+		return new Result(all, Arrays.stream(errors).sum(), duration);
+	}
+
+	private static long[] loop(HttpClient http, int port, int client, long deadline, int[] errors, Requests requests) {
+		long[] latencies = new long[1024];
+		int count = 0;
+		for (int i = client; System.nanoTime() < deadline; i++) {
+			HttpRequest request = requests.next(port, client, i);
+			long start = System.nanoTime();
+			try {
+				HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+				if (response.statusCode() / 100 != 2) {
+					errors[client]++;
+				}
+			} catch (Exception ex) {
+				errors[client]++;
+			}
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = System.nanoTime() - start;
+		}
+		return Arrays.copyOf(latencies, count);
+	}
+
+	private static long[] join(Future<long[]> future) {
+		try {
+			return future.get();
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	record Result(long[] sortedLatencies, int errors, Duration duration) {
+
+		String format(String mode) {
+			double throughput = sortedLatencies.length / (duration.toMillis() / 1000.0);
+			return String.format("%-10s %12.1f %10.2f %10.2f %8d",
+					mode, throughput, percentileMillis(0.50), percentileMillis(0.99), errors);
+		}
+
+		private double percentileMillis(double percentile) {
+			if (sortedLatencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+			return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
+import com.tipomeow.financial_tracker.services.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of a description search through the token index against the same search as a naive
+ * {@code LOWER(description) LIKE '%word%'} scan, both ranked newest first and limited to one page:
+ * <ul>
+ *     <li>{@code rare}: a row number, matching a handful of rows by prefix.</li>
+ *     <li>{@code merchant}: one of the {@link SeededLedgerState#MERCHANTS}, matching one row in 32.</li>
+ *     <li>{@code merchantAndNumber}: both words, the selective one narrowing the common one.</li>
+ * </ul>
+ * The LIKE scan also matches inside words, so it can return a few more rows; the work is what is compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DescriptionSearchBenchmark {
+
+	private static final int PAGE_SIZE = 50;
+
+	@Param({"rare", "merchant", "merchantAndNumber"})
+	public String query;
+
+	private TransactionService transactionService;
+	private JdbcTemplate jdbcTemplate;
+	private String text;
+
+	@Setup(Level.Trial)
+	public void setUp(SeededLedgerState ledger) {
+		transactionService = ledger.context.getBean(TransactionService.class);
+		jdbcTemplate = ledger.context.getBean(JdbcTemplate.class);
+		String number = String.valueOf(ledger.datasetSize / 2 + 1);
+		String merchant = SeededLedgerState.MERCHANTS.get(7);
+		text = switch (query) {
+			case "rare" -> number;
+			case "merchant" -> merchant;
+			case "merchantAndNumber" -> merchant + " " + number.substring(0, Math.min(3, number.length()));
+			default -> throw new IllegalArgumentException(query);
+		};
+	}
+
+	@Benchmark
+	public TransactionPageDto tokenIndex() {
+		return transactionService.searchText(text, new TransactionSearchRequestDto(), null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<Long> naiveLike() {
+		StringBuilder sql = new StringBuilder("SELECT id FROM transactions WHERE 1 = 1");
+		String[] words = text.toLowerCase(Locale.ROOT).split(" ");
+		for (int i = 0; i < words.length; i++) {
+			sql.append(" AND LOWER(description) LIKE ?");
+			words[i] = "%" + words[i] + "%";
+		}
+		sql.append(" ORDER BY time DESC, id DESC FETCH FIRST " + PAGE_SIZE + " ROWS ONLY");
+		return jdbcTemplate.queryForList(sql.toString(), Long.class, (Object[]) words);
+	}
+}
@@ -0,0 +1,65 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Create throughput of {@code POST /api/transactions} with and without the group-commit write pipeline, using
+ * the closed-loop load of {@link VirtualThreadLoadTest} with every request a create:
+ * <ul>
+ *     <li>{@code single}: the per-request path, one database transaction and commit per create.</li>
+ *     <li>{@code group}: {@code financial-tracker.write-pipeline.enabled=true}, creates coalesced by the writer
+ *     thread into one batch insert and commit.</li>
+ * </ul>
+ * Arguments: {@code [clients=200] [seconds=30] [datasetSize=100000]}. Both modes use a file database, so commits
+ * pay for the write-ahead log as in production; the databases are left in {@code target/}.
+ */
+public class GroupCommitLoadTest {
+
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+	private static final Map<String, String[]> MODES = Map.of(
+			"single", new String[]{},
+			"group", new String[]{"financial-tracker.write-pipeline.enabled=true"});
+
+	public static void main(String[] args) throws Exception {
+		int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		int datasetSize = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+		List<String> report = new ArrayList<>();
+		for (String mode : List.of("single", "group")) {
+			List<String> properties = new ArrayList<>(List.of(MODES.get(mode)));
+			properties.add("spring.datasource.url=jdbc:h2:file:./target/group-commit-" + mode
+					+ ";DB_CLOSE_ON_EXIT=FALSE");
+			ConfigurableApplicationContext context = SeededLedgerState.startSeeded(datasetSize,
+					properties.toArray(String[]::new));
+			try {
+				int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+				ClosedLoopLoad.run(port, clients, WARMUP, GroupCommitLoadTest::create);
+				report.add(ClosedLoopLoad.run(port, clients, Duration.ofSeconds(seconds),
+						GroupCommitLoadTest::create).format(mode));
+			} finally {
+				context.close();
+			}
+		}
+		System.err.printf("%n%s%n", ClosedLoopLoad.HEADER);
+		report.forEach(System.err::println);
+	}
+
+	// Spread over the expense categories of data.sql, dated now like interactive entry
+	private static HttpRequest create(int port, int client, int iteration) {
+		String body = String.format("{\"categoryId\":%d,\"description\":\"Load %d-%d\",\"amount\":%d.%02d}",
+				3 + iteration % 4, client, iteration, 1 + iteration % 500, iteration % 100);
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/transactions"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body))
+				.build();
+	}
+}
@@ -0,0 +1,47 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Renders the Thymeleaf home page through the dispatcher servlet, without the HTTP connector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HomePageBenchmark {
+
+	private MockMvc mockMvc;
+
+	@Setup(Level.Trial)
+	public void setUp(SeededLedgerState ledger) {
+		mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) ledger.context).build();
+	}
+
+	@Benchmark
+	public String renderHomePage() throws Exception {
+		return mockMvc.perform(get("/"))
+				.andReturn()
+				.getResponse()
+				.getContentAsString();
+	}
+}
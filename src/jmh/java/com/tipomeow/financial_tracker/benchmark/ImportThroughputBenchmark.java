@@ -0,0 +1,84 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import com.tipomeow.financial_tracker.dto.BulkImportResultDto;
+import com.tipomeow.financial_tracker.services.TransactionImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bulk import of {@code rows} transactions through {@link TransactionImportService}, as the
+ * {@code POST /api/transactions/bulk} endpoint runs it: parsing, validation, chunked JDBC batch inserts, rollup,
+ * description index and change events. The body is built once per trial, so only the import is measured;
+ * divide {@code rows} by the score for rows per second. Every invocation adds {@code rows} rows, so later
+ * iterations run against a slightly larger ledger, as a nightly load would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ImportThroughputBenchmark {
+
+	@Param({"10000"})
+	public int rows;
+
+	@Param({"json", "ndjson"})
+	public String format;
+
+	private TransactionImportService transactionImportService;
+	private byte[] body;
+
+	@Setup(Level.Trial)
+	public void setUp(SeededLedgerState ledger) {
+		transactionImportService = ledger.context.getBean(TransactionImportService.class);
+		boolean json = format.equals("json");
+		StringBuilder text = new StringBuilder(rows * 110);
+		if (json) {
+			text.append('[');
+		}
+		for (int i = 0; i < rows; i++) {
+			if (json && i > 0) {
+				text.append(',');
+			}
+			// Spread over the six data.sql categories, one row per minute of a past month
+			text.append(String.format("{\"categoryId\":%d,\"description\":\"%s import %d\",\"amount\":%d.%02d,"
+							+ "\"time\":\"2023-06-%02dT%02d:%02d:00Z\"}",
+					1 + i % 6, SeededLedgerState.MERCHANTS.get(i % SeededLedgerState.MERCHANTS.size()), i,
+					1 + i % 500, i % 100, 1 + i / 1440 % 28, i / 60 % 24, i % 60));
+			if (!json) {
+				text.append('\n');
+			}
+		}
+		if (json) {
+			text.append(']');
+		}
+		body = text.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public BulkImportResultDto importRows() {
+		ByteArrayInputStream input = new ByteArrayInputStream(body);
+		BulkImportResultDto result = format.equals("json")
+				? transactionImportService.importJsonArray(input)
+				: transactionImportService.importNdjson(input);
+		if (result.getInserted() != rows) {
+			throw new IllegalStateException("Imported " + result.getInserted() + " of " + rows + " rows");
+		}
+		return result;
+	}
+}
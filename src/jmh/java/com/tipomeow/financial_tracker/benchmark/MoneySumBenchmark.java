@@ -0,0 +1,71 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import com.tipomeow.financial_tracker.services.MoneyCents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums amounts of {@code DECIMAL(10,2)} shape as {@link BigDecimal} and as long cents. Run with
+ * {@code -prof gc} to see the per-row allocation of the {@code BigDecimal} fold next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MoneySumBenchmark {
+
+	@Param({"1000000"})
+	public int rows;
+
+	private BigDecimal[] amounts;
+	private long[] cents;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		amounts = new BigDecimal[rows];
+		cents = new long[rows];
+		for (int i = 0; i < rows; i++) {
+			long value = random.nextLong(100_000_000L);
+			amounts[i] = BigDecimal.valueOf(value, 2);
+			cents[i] = value;
+		}
+	}
+
+	@Benchmark
+	public BigDecimal bigDecimalReduce() {
+		return Arrays.stream(amounts).reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	@Benchmark
+	public long longCents() {
+		return MoneyCents.sum(cents);
+	}
+
+	// Includes converting each BigDecimal, as when amounts arrive as entities or DTOs
+	@Benchmark
+	public long longCentsFromBigDecimal() {
+		long total = 0L;
+		for (BigDecimal amount : amounts) {
+			total = MoneyCents.add(total, MoneyCents.fromAmount(amount));
+		}
+		return total;
+	}
+}
@@ -0,0 +1,87 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import com.tipomeow.financial_tracker.FinancialTrackerApplication;
+import com.tipomeow.financial_tracker.services.LedgerRollupService;
+import com.tipomeow.financial_tracker.services.TransactionTextIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application against an in-memory H2 database seeded with {@code datasetSize} transactions,
+ * spread over the six {@code data.sql} categories and one transaction per minute. Descriptions are one of
+ * {@link #MERCHANTS}, the word "order" and the row number, so description search has common and rare words. SQL logging stays at the
+ * defaults (slow and sampled statements only), so it does not dominate the measurements.
+ */
+@State(Scope.Benchmark)
+public class SeededLedgerState {
+
+	private static final int SEED_CHUNK = 100_000;
+	private static final int CATEGORY_COUNT = 6;
+	static final List<String> MERCHANTS = List.of(
+			"grocer", "bakery", "cinema", "railway", "pharmacy", "bookshop", "florist", "butcher",
+			"hardware", "stationer", "taxi", "parking", "electric", "water", "internet", "mobile",
+			"gym", "pizzeria", "sushi", "cafe", "brewery", "museum", "theatre", "airline",
+			"hotel", "laundry", "tailor", "optician", "dentist", "vet", "garden", "petrol");
+
+	@Param({"1000", "100000", "1000000"})
+	public int datasetSize;
+
+	public ConfigurableApplicationContext context;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = startSeeded(datasetSize);
+	}
+
+	// Also used outside JMH by the load test, which passes extra properties such as the threading mode. They go in
+	// as command-line arguments: builder properties are only defaults, and application.properties would win. A
+	// repeated argument is joined with commas, so an extra property replaces the default of the same name.
+	static ConfigurableApplicationContext startSeeded(int datasetSize, String... extraProperties) {
+		Map<String, String> properties = new LinkedHashMap<>();
+		Stream.concat(Stream.of(
+								"spring.datasource.url=jdbc:h2:mem:benchmark-" + datasetSize + ";DB_CLOSE_DELAY=-1",
+								"spring.jpa.hibernate.ddl-auto=create-drop",
+								"spring.h2.console.enabled=false",
+								"server.port=0"),
+						Stream.of(extraProperties))
+				.forEach(property -> properties.put(property.substring(0, property.indexOf('=')), property));
+		String[] args = properties.values().stream().map(property -> "--" + property).toArray(String[]::new);
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(FinancialTrackerApplication.class)
+				.run(args);
+		seed(context.getBean(JdbcTemplate.class), datasetSize);
+		context.getBean(LedgerRollupService.class).rebuild();
+		context.getBean(TransactionTextIndex.class).rebuild();
+		return context;
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	private static void seed(JdbcTemplate jdbcTemplate, int datasetSize) {
+		String merchants = "ARRAY['" + String.join("', '", MERCHANTS) + "']";
+		for (int start = 1; start <= datasetSize; start += SEED_CHUNK) {
+			int end = Math.min(start + SEED_CHUNK - 1, datasetSize);
+			jdbcTemplate.update(
+					"INSERT INTO transactions (category_id, description, amount, time) " +
+					"SELECT MOD(X, ?) + 1, " + merchants + "[MOD(X, ?) + 1] || ' order ' || X, " +
+					"MOD(X, 1000) + 0.99, " +
+					"DATEADD(MINUTE, X, TIMESTAMP WITH TIME ZONE '2020-01-01 00:00:00+00') " +
+					"FROM SYSTEM_RANGE(?, ?)",
+					CATEGORY_COUNT, MERCHANTS.size(), start, end);
+		}
+	}
+}
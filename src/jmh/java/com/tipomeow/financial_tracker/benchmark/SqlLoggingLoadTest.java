@@ -0,0 +1,53 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request throughput under the SQL logging modes, using the same closed-loop load as
+ * {@link VirtualThreadLoadTest}:
+ * <ul>
+ *     <li>{@code trace}: the {@code sql-trace} profile, i.e. the former defaults (every statement formatted and
+ *     logged with its bind values).</li>
+ *     <li>{@code sampled}: the current defaults (slow statements plus one in {@code sample-rate}, async).</li>
+ *     <li>{@code off}: no SQL logging at all, the floor for the other two.</li>
+ * </ul>
+ * Arguments: {@code [clients=200] [seconds=30] [datasetSize=100000]}. Redirect stdout to a file for the trace
+ * mode, otherwise the terminal becomes the bottleneck being measured.
+ */
+public class SqlLoggingLoadTest {
+
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+	private static final Map<String, String[]> MODES = Map.of(
+			"trace", new String[]{"spring.profiles.active=sql-trace", "financial-tracker.sql-log.enabled=false"},
+			"sampled", new String[]{},
+			"off", new String[]{"financial-tracker.sql-log.enabled=false"});
+
+	public static void main(String[] args) throws Exception {
+		int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		int datasetSize = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+		List<String> report = new ArrayList<>();
+		for (String mode : List.of("trace", "sampled", "off")) {
+			List<String> properties = new ArrayList<>(List.of(MODES.get(mode)));
+			properties.add("spring.datasource.url=jdbc:h2:mem:sql-logging-" + mode + ";DB_CLOSE_DELAY=-1");
+			ConfigurableApplicationContext context = SeededLedgerState.startSeeded(datasetSize,
+					properties.toArray(String[]::new));
+			try {
+				int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+				ClosedLoopLoad.run(port, clients, WARMUP);
+				report.add(ClosedLoopLoad.run(port, clients, Duration.ofSeconds(seconds)).format(mode));
+			} finally {
+				context.close();
+			}
+		}
+		System.err.printf("%n%s%n", ClosedLoopLoad.HEADER);
+		report.forEach(System.err::println);
+	}
+}
@@ -0,0 +1,137 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from JVM launch to the first successful request, measured on separate JVMs started from the
+ * {@code startup} build ({@code mvn package -Pstartup}), each on a fresh H2 file database:
+ * <ul>
+ *     <li>{@code default}: the development configuration ({@code ddl-auto=update}, {@code data.sql}).</li>
+ *     <li>{@code prod}: the {@code prod} profile (Flyway migrations, no seed data, deferred JPA bootstrap).</li>
+ *     <li>{@code prod-aot-cds}: the same with the AOT-generated context and a CDS archive. The archive is
+ *     created first by a training run that exits after the context refresh.</li>
+ * </ul>
+ * Arguments: {@code [runs=5] [jar=target/financial-tracker-0.0.1-SNAPSHOT.jar]}. Prints the median and
+ * minimum per mode.
+ */
+public class StartupBenchmark {
+
+	private static final String FIRST_REQUEST = "/api/categories";
+	private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+	public static void main(String[] args) throws Exception {
+		int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		Path jar = Path.of(args.length > 1 ? args[1] : "target/financial-tracker-0.0.1-SNAPSHOT.jar").toAbsolutePath();
+		if (!Files.exists(jar) || !Files.isDirectory(jar.resolveSibling("lib"))) {
+			throw new IllegalStateException(jar + " and its lib directory not found, build with mvn package -Pstartup");
+		}
+		Path archive = jar.resolveSibling("financial-tracker.jsa");
+		train(jar, archive);
+
+		List<Mode> modes = List.of(
+				new Mode("default", List.of(), List.of()),
+				new Mode("prod", List.of(), List.of("--spring.profiles.active=prod")),
+				new Mode("prod-aot-cds",
+						List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive),
+						List.of("--spring.profiles.active=prod")));
+		List<String> report = new ArrayList<>();
+		for (Mode mode : modes) {
+			long[] millis = new long[runs];
+			for (int run = 0; run < runs; run++) {
+				millis[run] = timeToFirstRequest(jar, mode);
+				System.out.printf("%s run %d: %d ms%n", mode.name(), run + 1, millis[run]);
+			}
+			Arrays.sort(millis);
+			report.add(String.format("%-14s %10d %10d", mode.name(), millis[runs / 2], millis[0]));
+		}
+		System.out.printf("%n%-14s %10s %10s%n", "mode", "median ms", "min ms");
+		report.forEach(System.out::println);
+	}
+
+	private record Mode(String name, List<String> jvmArgs, List<String> appArgs) {
+	}
+
+	// spring.context.exit=onRefresh stops the training run once the context is refreshed, after the classes
+	// used during startup have been loaded
+	private static void train(Path jar, Path archive) throws Exception {
+		Files.deleteIfExists(archive);
+		Path database = Files.createTempDirectory("startup-training");
+		List<String> command = new ArrayList<>(List.of(javaExecutable(),
+				"-XX:ArchiveClassesAtExit=" + archive,
+				"-Dspring.aot.enabled=true",
+				"-Dspring.context.exit=onRefresh",
+				"-jar", jar.toString(),
+				"--spring.profiles.active=prod",
+				"--spring.datasource.url=jdbc:h2:file:" + database.resolve("db")));
+		Process process = new ProcessBuilder(command).inheritIO().start();
+		if (!process.waitFor(START_TIMEOUT.toSeconds(), TimeUnit.SECONDS) || process.exitValue() != 0) {
+			process.destroyForcibly();
+			throw new IllegalStateException("CDS training run failed");
+		}
+	}
+
+	private static long timeToFirstRequest(Path jar, Mode mode) throws Exception {
+		int port = freePort();
+		Path database = Files.createTempDirectory("startup-" + mode.name());
+		List<String> command = new ArrayList<>();
+		command.add(javaExecutable());
+		command.addAll(mode.jvmArgs());
+		command.addAll(List.of("-jar", jar.toString(),
+				"--server.port=" + port,
+				"--spring.datasource.url=jdbc:h2:file:" + database.resolve("db"),
+				"--logging.level.root=WARN"));
+		command.addAll(mode.appArgs());
+
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + FIRST_REQUEST)).build();
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command)
+				.redirectErrorStream(true)
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+				.start();
+		try {
+			long deadline = start + START_TIMEOUT.toNanos();
+			while (System.nanoTime() < deadline) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException(mode.name() + " exited with " + process.exitValue());
+				}
+				try {
+					if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return (System.nanoTime() - start) / 1_000_000;
+					}
+				} catch (IOException notListeningYet) {
+					// keep polling
+				}
+				Thread.sleep(10);
+			}
+			throw new IllegalStateException(mode.name() + " did not answer within " + START_TIMEOUT);
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	private static String javaExecutable() {
+		return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.entity.Category;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.entity.Transaction;
+import com.tipomeow.financial_tracker.mapper.TransactionMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps detached entities whose categories are already loaded, isolating the mapper from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransactionMapperBenchmark {
+
+	private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+	@Param({"1000", "100000", "1000000"})
+	public int datasetSize;
+
+	private TransactionMapper transactionMapper;
+	private List<Transaction> transactions;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		transactionMapper = Mappers.getMapper(TransactionMapper.class);
+		List<Category> categories = List.of(
+				category(1L, "Salary", CategoryType.INCOME),
+				category(2L, "Food", CategoryType.EXPENSE),
+				category(3L, "Transport", CategoryType.EXPENSE));
+		transactions = new ArrayList<>(datasetSize);
+		for (int i = 0; i < datasetSize; i++) {
+			Transaction transaction = new Transaction();
+			transaction.setId((long) i + 1);
+			transaction.setCategory(categories.get(i % categories.size()));
+			transaction.setDescription("Benchmark row " + i);
+			transaction.setAmount(BigDecimal.valueOf(i % 1000, 2));
+			transaction.setTime(START.plusSeconds(60L * i));
+			transactions.add(transaction);
+		}
+	}
+
+	@Benchmark
+	public List<TransactionDto> toDtoList() {
+		return transactionMapper.toDtoList(transactions);
+	}
+
+	private static Category category(Long id, String name, CategoryType type) {
+		Category category = new Category();
+		category.setId(id);
+		category.setName(name);
+		category.setType(type);
+		return category;
+	}
+}
@@ -0,0 +1,65 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.services.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level hot paths, measured through the Spring proxies so transaction handling is included.
+ * {@code createTransaction} grows the ledger slightly during a trial; against the seeded sizes that drift
+ * is negligible.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TransactionServiceBenchmark {
+
+	private static final long EXPENSE_CATEGORY_ID = 3L;
+
+	private TransactionService transactionService;
+	private TransactionRequestDto request;
+
+	@Setup(Level.Trial)
+	public void setUp(SeededLedgerState ledger) {
+		transactionService = ledger.context.getBean(TransactionService.class);
+		request = new TransactionRequestDto();
+		request.setCategoryId(EXPENSE_CATEGORY_ID);
+		request.setDescription("Benchmark purchase");
+		request.setAmount(new BigDecimal("12.34"));
+	}
+
+	@Benchmark
+	public List<CategoryExpenseSummaryDto> getCategoryExpenseSummary() {
+		return transactionService.getCategoryExpenseSummary();
+	}
+
+	@Benchmark
+	public TransactionDto createTransaction() {
+		return transactionService.createTransaction(request);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public List<TransactionDto> getAllTransactions() {
+		return transactionService.getAllTransactions();
+	}
+}
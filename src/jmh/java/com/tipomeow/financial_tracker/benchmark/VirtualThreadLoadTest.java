@@ -0,0 +1,44 @@
+package com.tipomeow.financial_tracker.benchmark;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Closed-loop load test comparing platform-thread and virtual-thread request execution. Each mode gets a
+ * freshly seeded application; {@code clients} concurrent clients then loop over a mix of read endpoints
+ * for {@code seconds}, and throughput, p50 and p99 latency and error counts are printed per mode.
+ * <p>
+ * Arguments: {@code [clients=1000] [seconds=30] [datasetSize=100000]}.
+ */
+public class VirtualThreadLoadTest {
+
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+
+	public static void main(String[] args) throws Exception {
+		int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+		int datasetSize = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+		List<String> report = new ArrayList<>();
+		for (boolean virtual : new boolean[]{false, true}) {
+			String mode = virtual ? "virtual" : "platform";
+			ConfigurableApplicationContext context = SeededLedgerState.startSeeded(datasetSize,
+					"spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+					"spring.threads.virtual.enabled=" + virtual);
+			try {
+				int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+				ClosedLoopLoad.run(port, clients, WARMUP);
+				ClosedLoopLoad.Result result = ClosedLoopLoad.run(port, clients, Duration.ofSeconds(seconds));
+				report.add(result.format(mode));
+			} finally {
+				context.close();
+			}
+		}
+		System.out.printf("%n%s%n", ClosedLoopLoad.HEADER);
+		report.forEach(System.out::println);
+	}
+}
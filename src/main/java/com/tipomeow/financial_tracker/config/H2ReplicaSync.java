@@ -0,0 +1,113 @@
+package com.tipomeow.financial_tracker.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for replication, so the replica routing can be tried with a second H2 database. The replica
+ * gets the primary's schema without foreign keys and a read-only linked table per primary table. Every
+ * {@code h2-sync-interval} it replaces all rows from the linked tables in one transaction, so replica readers see
+ * either the previous copy or the new one, and lag by up to one interval.
+ * <p>
+ * Each sync copies the whole database, so this is for development and tests only. Schema changes made after
+ * startup are not followed.
+ */
+@Slf4j
+public class H2ReplicaSync {
+
+    private static final String LINK_SCHEMA = "PRIMARY_LINK";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate replicaTransaction;
+    private final String primaryUrl;
+    private final String primaryUsername;
+    private final String primaryPassword;
+    private final Duration interval;
+    private ScheduledExecutorService scheduler;
+    private List<String> tables = List.of();
+
+    public H2ReplicaSync(DataSource primary, DataSource replica, String primaryUrl, String primaryUsername,
+                         String primaryPassword, Duration interval) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.replicaTransaction = new TransactionTemplate(new DataSourceTransactionManager(replica));
+        this.primaryUrl = primaryUrl;
+        this.primaryUsername = primaryUsername;
+        this.primaryPassword = primaryPassword;
+        this.interval = interval;
+    }
+
+    public void start() {
+        copySchema();
+        sync();
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("h2-replica-sync").daemon().factory());
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void sync() {
+        long start = System.nanoTime();
+        replicaTransaction.executeWithoutResult(status -> {
+            for (String table : tables) {
+                replica.update("DELETE FROM " + quote(table));
+                replica.update("INSERT INTO " + quote(table) + " SELECT * FROM " + LINK_SCHEMA + "." + quote(table));
+            }
+        });
+        log.debug("Copied {} tables to the replica in {} ms",
+                tables.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Replica sync failed: {}", e.getMessage());
+        }
+    }
+
+    // Foreign keys are left out: rows are replaced table by table, and the primary already enforced them
+    private void copySchema() {
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : primary.queryForList("SCRIPT NODATA NOPASSWORDS NOSETTINGS", String.class)) {
+            if (!statement.startsWith("--") && !statement.contains("FOREIGN KEY")
+                    && !statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        tables = primary.queryForList("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME", String.class);
+        replica.execute("CREATE SCHEMA " + LINK_SCHEMA);
+        for (String table : tables) {
+            replica.execute("CREATE LINKED TABLE " + LINK_SCHEMA + "." + quote(table) + "('org.h2.Driver', "
+                    + literal(primaryUrl) + ", " + literal(primaryUsername) + ", " + literal(primaryPassword)
+                    + ", 'PUBLIC', " + literal(table) + ") READONLY");
+        }
+        log.info("Replica schema copied from the primary, {} tables synced every {} ms", tables.size(),
+                interval.toMillis());
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String literal(String value) {
+        return "'" + (value == null ? "" : value.replace("'", "''")) + "'";
+    }
+}
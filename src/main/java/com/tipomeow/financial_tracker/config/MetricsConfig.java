@@ -0,0 +1,94 @@
+package com.tipomeow.financial_tracker.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics beyond what Spring Boot records on its own (HTTP server requests, repository invocations and the
+ * HikariCP pool): {@code @Timed} service methods, Hibernate statistics and SQL statements per request.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(
+            SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(sqlStatementCounter, meterRegistry));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    // Boot only binds Hibernate statistics when hibernate-micrometer is present, and no release of it matches the
+    // managed hibernate-core, so the counters are read from the SessionFactory directly. They are bound once all
+    // singletons exist: a MeterBinder needing the entity manager factory would close a cycle through Flyway.
+    @Bean
+    public SmartInitializingSingleton hibernateStatisticsMetrics(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return () -> meterRegistry.ifAvailable(registry -> entityManagerFactory.ifAvailable(factory -> {
+            Statistics statistics = factory.unwrap(SessionFactory.class).getStatistics();
+            counter(registry, "hibernate.sessions.open", "Sessions opened", statistics, Statistics::getSessionOpenCount);
+            counter(registry, "hibernate.transactions", "Transactions completed", statistics,
+                    Statistics::getTransactionCount);
+            counter(registry, "hibernate.flushes", "Session flushes", statistics, Statistics::getFlushCount);
+            counter(registry, "hibernate.connections.obtained", "JDBC connections obtained", statistics,
+                    Statistics::getConnectCount);
+            counter(registry, "hibernate.statements.prepared", "JDBC statements prepared", statistics,
+                    Statistics::getPrepareStatementCount);
+            counter(registry, "hibernate.query.executions", "Queries executed", statistics,
+                    Statistics::getQueryExecutionCount);
+            counter(registry, "hibernate.entities.loads", "Entities loaded", statistics, Statistics::getEntityLoadCount);
+            counter(registry, "hibernate.entities.fetches", "Entities fetched lazily", statistics,
+                    Statistics::getEntityFetchCount);
+            counter(registry, "hibernate.entities.inserts", "Entities inserted", statistics,
+                    Statistics::getEntityInsertCount);
+            counter(registry, "hibernate.entities.updates", "Entities updated", statistics,
+                    Statistics::getEntityUpdateCount);
+            counter(registry, "hibernate.entities.deletes", "Entities deleted", statistics,
+                    Statistics::getEntityDeleteCount);
+            counter(registry, "hibernate.collections.fetches", "Collections fetched lazily", statistics,
+                    Statistics::getCollectionFetchCount);
+            TimeGauge.builder("hibernate.query.executions.max", statistics, TimeUnit.MILLISECONDS,
+                            Statistics::getQueryExecutionMaxTime)
+                    .description("Slowest query execution time")
+                    .register(registry);
+        }));
+    }
+
+    private static void counter(MeterRegistry registry, String name, String description, Statistics statistics,
+                                ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,124 @@
+package com.tipomeow.financial_tracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Read/write splitting, enabled with {@code financial-tracker.read-replica.enabled=true}. The application data
+ * source becomes a {@link LazyConnectionDataSourceProxy} over a {@link ReadReplicaRoutingDataSource}: read-only
+ * transactions use a second pool on {@code financial-tracker.read-replica.url}, everything else the primary.
+ * {@link ReadYourWritesFilter} keeps clients that wrote within {@code max-lag} on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "financial-tracker.read-replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadRouting readRouting() {
+        return new ReadRouting();
+    }
+
+    // Highest precedence, so the statement timing and the bulkhead wrap the routed data source rather than the pools
+    @Bean
+    public static BeanPostProcessor readReplicaRouting(Environment environment) {
+        return new RoutingPostProcessor(environment);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(Environment environment) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(maxLag(environment)));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnExpression("'${financial-tracker.read-replica.h2-sync-interval:}' != ''")
+    public H2ReplicaSync h2ReplicaSync(Environment environment) {
+        return new H2ReplicaSync(
+                primaryDataSource(environment),
+                replicaDataSource(environment),
+                environment.getRequiredProperty("spring.datasource.url"),
+                environment.getProperty("spring.datasource.username"),
+                environment.getProperty("spring.datasource.password"),
+                environment.getRequiredProperty("financial-tracker.read-replica.h2-sync-interval", Duration.class));
+    }
+
+    // The replica is copied once the schema and data.sql are in place, before other startup checks read it
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void copyToReplicaOnStartup(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBeanProvider(H2ReplicaSync.class).ifAvailable(H2ReplicaSync::start);
+    }
+
+    static Duration maxLag(Environment environment) {
+        return environment.getProperty("financial-tracker.read-replica.max-lag", Duration.class, Duration.ofSeconds(2));
+    }
+
+    private static DataSource primaryDataSource(Environment environment) {
+        return new DriverManagerDataSource(environment.getRequiredProperty("spring.datasource.url"),
+                environment.getProperty("spring.datasource.username", ""),
+                environment.getProperty("spring.datasource.password", ""));
+    }
+
+    private static DataSource replicaDataSource(Environment environment) {
+        return new DriverManagerDataSource(environment.getRequiredProperty("financial-tracker.read-replica.url"),
+                environment.getProperty("financial-tracker.read-replica.username", ""),
+                environment.getProperty("financial-tracker.read-replica.password", ""));
+    }
+
+    private static final class RoutingPostProcessor implements BeanPostProcessor, Ordered, DisposableBean {
+        private final Environment environment;
+        private HikariDataSource replicaPool;
+
+        private RoutingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource primary && !(bean instanceof LazyConnectionDataSourceProxy)
+                    && replicaPool == null) {
+                replicaPool = new HikariDataSource();
+                replicaPool.setPoolName("replica");
+                replicaPool.setJdbcUrl(environment.getRequiredProperty("financial-tracker.read-replica.url"));
+                replicaPool.setUsername(environment.getProperty("financial-tracker.read-replica.username", ""));
+                replicaPool.setPassword(environment.getProperty("financial-tracker.read-replica.password", ""));
+                replicaPool.setMaximumPoolSize(environment.getProperty("financial-tracker.read-replica.maximum-pool-size",
+                        Integer.class, environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10)));
+                replicaPool.setReadOnly(true);
+                return new LazyConnectionDataSourceProxy(
+                        new ReadReplicaRoutingDataSource(primary, replicaPool, new ReadRouting()));
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void destroy() {
+            if (replicaPool != null) {
+                replicaPool.close();
+            }
+        }
+    }
+}
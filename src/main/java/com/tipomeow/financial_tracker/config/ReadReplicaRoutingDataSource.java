@@ -0,0 +1,31 @@
+package com.tipomeow.financial_tracker.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections otherwise. It must sit
+ * behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager
+ * opens the connection before the transaction is marked read-only, and the proxy defers the lookup to the
+ * first statement.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReadRouting readRouting;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadRouting readRouting) {
+        this.readRouting = readRouting;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return readRouting.readsFromReplica() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -0,0 +1,62 @@
+package com.tipomeow.financial_tracker.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Routing decision of {@link ReadReplicaRoutingDataSource}, a bean only when the read replica is enabled. A
+ * connection taken inside a read-only transaction is a replica connection unless the thread is pinned to the
+ * primary: for a request from a client that wrote recently ({@link ReadYourWritesFilter}), or around a read
+ * that must see the primary. The pin is per thread and works the same with or without a replica.
+ */
+public class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    // True when a statement run now would go to the replica (or, if the connection is already open, did)
+    public boolean readsFromReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isPinnedToPrimary();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED.get());
+    }
+
+    // Only affects connections taken while pinned; a transaction that already holds a replica connection keeps it
+    public static Pin pinToPrimary() {
+        Boolean previous = PINNED.get();
+        PINNED.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PINNED.remove();
+            } else {
+                PINNED.set(previous);
+            }
+        };
+    }
+
+    public static <T> T onPrimary(Supplier<T> read) {
+        try (Pin ignored = pinToPrimary()) {
+            return read.get();
+        }
+    }
+
+    // Tasks handed to a pool keep the submitting thread's pin
+    public static Executor propagating(Executor executor) {
+        if (!isPinnedToPrimary()) {
+            return executor;
+        }
+        return task -> executor.execute(() -> {
+            try (Pin ignored = pinToPrimary()) {
+                task.run();
+            }
+        });
+    }
+
+    public interface Pin extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
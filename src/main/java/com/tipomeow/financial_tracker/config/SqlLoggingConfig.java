@@ -0,0 +1,54 @@
+package com.tipomeow.financial_tracker.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Slow and sampled statement logging through {@link SqlTimingDataSource}, replacing Hibernate's per-statement
+ * SQL and bind-parameter logging (still available with the {@code sql-trace} profile). Switched off with
+ * {@code financial-tracker.sql-log.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "financial-tracker.sql-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlLoggingConfig {
+
+    // Ordered, so it runs before the unordered bulkhead post-processor: the bulkhead stays the outer
+    // wrapper and its wait is not counted as statement time
+    @Bean
+    public static BeanPostProcessor sqlTimingDataSource(Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        Duration slowThreshold = environment.getProperty("financial-tracker.sql-log.slow-threshold", Duration.class,
+                Duration.ofMillis(200));
+        int sampleRate = environment.getProperty("financial-tracker.sql-log.sample-rate", Integer.class, 0);
+        return new OrderedBeanPostProcessor() {
+            private SqlStatementLog statementLog;
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlTimingDataSource)
+                        && !(bean instanceof BulkheadDataSource)) {
+                    if (statementLog == null) {
+                        statementLog = new SqlStatementLog(slowThreshold, sampleRate, meterRegistry);
+                    }
+                    return new SqlTimingDataSource(dataSource, statementLog);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private interface OrderedBeanPostProcessor extends BeanPostProcessor, Ordered {
+        @Override
+        default int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.tipomeow.financial_tracker.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, plus those of work handed to an
+ * executor wrapped with {@link #propagating(Executor)}. Statements issued through {@code JdbcTemplate}
+ * (import, export, rollup upserts) bypass Hibernate and are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    public void start() {
+        COUNT.set(new AtomicInteger());
+    }
+
+    public int stop() {
+        AtomicInteger count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count.get();
+    }
+
+    // Tasks count into the submitting request's counter, like ReadRouting.propagating carries the primary pin
+    public static Executor propagating(Executor executor) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return executor;
+        }
+        return task -> executor.execute(() -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    COUNT.remove();
+                } else {
+                    COUNT.set(previous);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package com.tipomeow.financial_tracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Decides which executed statements are logged, to the {@code financial.tracker.sql} logger: every statement
+ * slower than {@code slowThreshold} (fingerprint, duration, SQL) and one in {@code sampleRate} statements in
+ * full with its bind parameters. Everything else costs a clock read and a comparison.
+ * <p>
+ * The logger is routed through an asynchronous, non-blocking appender in {@code logback-spring.xml}, so
+ * request threads never wait for the console or a file.
+ */
+public class SqlStatementLog {
+
+    private static final Logger log = LoggerFactory.getLogger("financial.tracker.sql");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowThresholdNanos;
+    private final int sampleRate;
+    private final AtomicLong executed = new AtomicLong();
+    // The data source is created before the meter registry can be, so the counter is registered on first use
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private volatile Counter slowStatements;
+
+    public SqlStatementLog(Duration slowThreshold, int sampleRate, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Decided when the statement is prepared, so only sampled statements pay for capturing parameters
+    boolean sampleNext() {
+        return sampleRate > 0 && executed.incrementAndGet() % sampleRate == 0;
+    }
+
+    void record(String sql, long elapsedNanos, boolean sampled, Map<Integer, Object> parameters) {
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        if (!slow && !sampled) {
+            return;
+        }
+        String normalized = normalize(sql);
+        String fingerprint = fingerprint(normalized);
+        double millis = elapsedNanos / 1_000_000.0;
+        if (slow) {
+            slowStatements().increment();
+            log.warn("slow sql fingerprint={} duration={}ms sql={}", fingerprint, String.format("%.1f", millis), normalized);
+        }
+        if (sampled) {
+            log.info("sampled sql fingerprint={} duration={}ms sql={} parameters={}",
+                    fingerprint, String.format("%.1f", millis), sql, parameters);
+        }
+    }
+
+    private Counter slowStatements() {
+        Counter counter = slowStatements;
+        if (counter == null) {
+            counter = Counter.builder("financial.tracker.sql.slow")
+                    .description("Statements slower than the slow SQL threshold")
+                    .register(meterRegistry.getObject());
+            slowStatements = counter;
+        }
+        return counter;
+    }
+
+    // Literals become ? and IN lists of any length collapse, so one query shape gets one fingerprint
+    static String normalize(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    static String fingerprint(String normalized) {
+        return String.format("%08x", normalized.hashCode());
+    }
+}
@@ -0,0 +1,92 @@
+package com.tipomeow.financial_tracker.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Times every statement execution on connections from the target data source and reports it to a
+ * {@link SqlStatementLog}. Covers Hibernate and the plain JDBC paths (import, export, analytics) alike.
+ */
+public class SqlTimingDataSource extends DelegatingDataSource {
+
+    private final SqlStatementLog statementLog;
+
+    public SqlTimingDataSource(DataSource targetDataSource, SqlStatementLog statementLog) {
+        super(targetDataSource);
+        this.statementLog = statementLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    String name = method.getName();
+                    if (result instanceof CallableStatement statement && name.equals("prepareCall")) {
+                        return timed(statement, CallableStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof PreparedStatement statement && name.equals("prepareStatement")) {
+                        return timed(statement, PreparedStatement.class, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement && name.equals("createStatement")) {
+                        return timed(statement, Statement.class, null);
+                    }
+                    return result;
+                });
+    }
+
+    private Object timed(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        boolean sampled = statementLog.sampleNext();
+        Map<Integer, Object> parameters = sampled ? new TreeMap<>() : null;
+        return Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (!name.startsWith("execute")) {
+                        if (sampled && name.startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer index) {
+                            parameters.put(index, args[1]);
+                        }
+                        return invoke(statement, method, args);
+                    }
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        statementLog.record(sql, System.nanoTime() - start, sampled, parameters);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
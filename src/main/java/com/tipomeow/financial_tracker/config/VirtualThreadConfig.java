@@ -0,0 +1,62 @@
+package com.tipomeow.financial_tracker.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Active only with {@code spring.threads.virtual.enabled=true}. Virtual threads make blocking requests
+ * cheap, so the connection pool, not the Tomcat thread pool, becomes the limit; the data source is
+ * wrapped in a {@link BulkheadDataSource} and pinned virtual threads are reported.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseBulkhead(Environment environment) {
+        int maxConcurrency = environment.getProperty("financial-tracker.db.max-concurrency", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = environment.getProperty("financial-tracker.db.acquire-timeout", Duration.class,
+                Duration.ofSeconds(5));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, maxConcurrency, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                Gauge.builder("financial.tracker.db.bulkhead.available", bulkhead, BulkheadDataSource::getAvailablePermits)
+                        .description("Connection permits not currently in use")
+                        .register(registry);
+                Gauge.builder("financial.tracker.db.bulkhead.waiting", bulkhead, BulkheadDataSource::getQueueLength)
+                        .description("Threads waiting for a connection permit")
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry, Environment environment) {
+        Duration threshold = environment.getProperty("financial-tracker.virtual-threads.pinned-threshold", Duration.class,
+                Duration.ofMillis(20));
+        return new VirtualThreadPinningMonitor(meterRegistry, threshold);
+    }
+}
@@ -0,0 +1,57 @@
+package com.tipomeow.financial_tracker.controller;
+
+import com.tipomeow.financial_tracker.dto.AnalyticsVerificationDto;
+import com.tipomeow.financial_tracker.dto.CategoryTotalDto;
+import com.tipomeow.financial_tracker.dto.TimeBucketTotalDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.services.AnalyticsSnapshotService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@ConditionalOnProperty(name = "financial-tracker.analytics.enabled", havingValue = "true")
+public class AnalyticsController {
+
+    private final AnalyticsSnapshotService analyticsSnapshotService;
+
+    public AnalyticsController(AnalyticsSnapshotService analyticsSnapshotService) {
+        this.analyticsSnapshotService = analyticsSnapshotService;
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryTotalDto>> getCategoryTotals(
+            @RequestParam(required = false) CategoryType type,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to) {
+        return ResponseEntity.ok(analyticsSnapshotService.getCategoryTotals(type, from, to));
+    }
+
+    @GetMapping("/categories/top")
+    public ResponseEntity<List<CategoryTotalDto>> getTopCategories(
+            @RequestParam(required = false) CategoryType type,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok(analyticsSnapshotService.getTopCategories(type, from, to, limit));
+    }
+
+    @GetMapping("/buckets")
+    public ResponseEntity<List<TimeBucketTotalDto>> getBucketTotals(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(defaultValue = "P1D") Duration bucket,
+            @RequestParam(required = false) Long categoryId) {
+        return ResponseEntity.ok(analyticsSnapshotService.getBucketTotals(from, to, bucket, categoryId));
+    }
+
+    @GetMapping("/verify")
+    public ResponseEntity<AnalyticsVerificationDto> verify() {
+        return ResponseEntity.ok(analyticsSnapshotService.verify());
+    }
+}
@@ -0,0 +1,24 @@
+package com.tipomeow.financial_tracker.controller;
+
+import com.tipomeow.financial_tracker.dto.BalanceDto;
+import com.tipomeow.financial_tracker.services.BalanceService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/balance")
+public class BalanceController {
+
+    private final BalanceService balanceService;
+
+    public BalanceController(BalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    @GetMapping
+    public ResponseEntity<BalanceDto> getBalance(@RequestParam(required = false) Instant at) {
+        return ResponseEntity.ok(balanceService.getBalanceAt(at));
+    }
+}
@@ -1,13 +1,16 @@
 package com.tipomeow.financial_tracker.controller;
 
+import com.tipomeow.financial_tracker.dto.CategoryCacheStatsDto;
 import com.tipomeow.financial_tracker.dto.CategoryDto;
 import com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto;
 import com.tipomeow.financial_tracker.dto.CategoryRequestDto;
 import com.tipomeow.financial_tracker.services.CategoryService;
+import com.tipomeow.financial_tracker.services.LedgerVersion;
 import com.tipomeow.financial_tracker.services.TransactionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -16,16 +19,23 @@ public class CategoryController {
 
     private final CategoryService categoryService;
     private final TransactionService transactionService;
+    private final LedgerVersion ledgerVersion;
 
-    public CategoryController(CategoryService categoryService, TransactionService transactionService) {
+    public CategoryController(CategoryService categoryService, TransactionService transactionService,
+                              LedgerVersion ledgerVersion) {
         this.categoryService = categoryService;
         this.transactionService = transactionService;
+        this.ledgerVersion = ledgerVersion;
     }
 
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
+    public ResponseEntity<List<CategoryDto>> getAllCategories(WebRequest request) {
+        String eTag = ledgerVersion.categoriesETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<CategoryDto> categories = categoryService.getAllCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().eTag(eTag).body(categories);
     }
 
     @GetMapping("/{id}")
@@ -53,8 +63,17 @@ public class CategoryController {
     }
 
     @GetMapping("/expenses/summary")
-    public ResponseEntity<List<CategoryExpenseSummaryDto>> getCategoryExpenseSummary() {
+    public ResponseEntity<List<CategoryExpenseSummaryDto>> getCategoryExpenseSummary(WebRequest request) {
+        String eTag = ledgerVersion.ledgerETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<CategoryExpenseSummaryDto> summary = transactionService.getCategoryExpenseSummary();
-        return ResponseEntity.ok(summary);
+        return ResponseEntity.ok().eTag(eTag).body(summary);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CategoryCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(categoryService.getCacheStats());
     }
 }
\ No newline at end of file
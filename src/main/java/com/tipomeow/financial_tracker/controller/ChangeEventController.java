@@ -0,0 +1,35 @@
+package com.tipomeow.financial_tracker.controller;
+
+import com.tipomeow.financial_tracker.dto.ChangeEventPageDto;
+import com.tipomeow.financial_tracker.services.ChangeEventService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeEventController {
+
+    private final ChangeEventService changeEventService;
+
+    public ChangeEventController(ChangeEventService changeEventService) {
+        this.changeEventService = changeEventService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ChangeEventPageDto> getChangesSince(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        ChangeEventPageDto page = changeEventService.getChangesSince(since, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    // A reconnecting EventSource sends the id of the last event it received, which wins over since
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeEventService.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -0,0 +1,51 @@
+package com.tipomeow.financial_tracker.controller;
+
+import com.tipomeow.financial_tracker.dto.ArchiveRunDto;
+import com.tipomeow.financial_tracker.dto.RollupVerificationDto;
+import com.tipomeow.financial_tracker.dto.SearchIndexRebuildDto;
+import com.tipomeow.financial_tracker.services.LedgerRollupService;
+import com.tipomeow.financial_tracker.services.TransactionArchiveService;
+import com.tipomeow.financial_tracker.services.TransactionTextIndex;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/maintenance")
+public class MaintenanceController {
+
+    private final LedgerRollupService ledgerRollupService;
+    private final TransactionTextIndex transactionTextIndex;
+    private final TransactionArchiveService transactionArchiveService;
+
+    public MaintenanceController(LedgerRollupService ledgerRollupService,
+                                 TransactionTextIndex transactionTextIndex,
+                                 TransactionArchiveService transactionArchiveService) {
+        this.ledgerRollupService = ledgerRollupService;
+        this.transactionTextIndex = transactionTextIndex;
+        this.transactionArchiveService = transactionArchiveService;
+    }
+
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<RollupVerificationDto> rebuildRollup() {
+        RollupVerificationDto result = ledgerRollupService.rebuild();
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/rollup/verify")
+    public ResponseEntity<RollupVerificationDto> verifyRollup() {
+        RollupVerificationDto result = ledgerRollupService.verify();
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<SearchIndexRebuildDto> rebuildSearchIndex() {
+        SearchIndexRebuildDto result = transactionTextIndex.rebuild();
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/archive/run")
+    public ResponseEntity<ArchiveRunDto> runArchive() {
+        ArchiveRunDto result = transactionArchiveService.archive();
+        return ResponseEntity.ok(result);
+    }
+}
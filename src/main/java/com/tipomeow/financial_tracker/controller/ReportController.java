@@ -0,0 +1,32 @@
+package com.tipomeow.financial_tracker.controller;
+
+import com.tipomeow.financial_tracker.dto.ReportGranularity;
+import com.tipomeow.financial_tracker.dto.TimeSeriesBucketDto;
+import com.tipomeow.financial_tracker.services.TimeSeriesReportService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final TimeSeriesReportService timeSeriesReportService;
+
+    public ReportController(TimeSeriesReportService timeSeriesReportService) {
+        this.timeSeriesReportService = timeSeriesReportService;
+    }
+
+    @GetMapping("/income-expense")
+    public ResponseEntity<List<TimeSeriesBucketDto>> getIncomeExpenseReport(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam(defaultValue = "MONTH") ReportGranularity granularity,
+            @RequestParam(defaultValue = "UTC") ZoneId zone,
+            @RequestParam(defaultValue = "false") boolean byCategory) {
+        return ResponseEntity.ok(timeSeriesReportService.getIncomeExpenseReport(from, to, granularity, zone, byCategory));
+    }
+}
@@ -1,11 +1,28 @@
 package com.tipomeow.financial_tracker.controller;
 
+import com.tipomeow.financial_tracker.dto.BatchResultDto;
+import com.tipomeow.financial_tracker.dto.BatchUpdateRequestDto;
+import com.tipomeow.financial_tracker.dto.BulkImportResultDto;
 import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
 import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
+import com.tipomeow.financial_tracker.services.BalanceService;
+import com.tipomeow.financial_tracker.services.LedgerVersion;
+import com.tipomeow.financial_tracker.services.TransactionExportService;
+import com.tipomeow.financial_tracker.services.TransactionImportService;
 import com.tipomeow.financial_tracker.services.TransactionService;
+import com.tipomeow.financial_tracker.services.TransactionWritePipeline;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -13,15 +30,86 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionImportService transactionImportService;
+    private final TransactionExportService transactionExportService;
+    private final LedgerVersion ledgerVersion;
+    private final BalanceService balanceService;
+    private final ObjectProvider<TransactionWritePipeline> writePipeline;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionImportService transactionImportService,
+                                 TransactionExportService transactionExportService,
+                                 LedgerVersion ledgerVersion,
+                                 BalanceService balanceService,
+                                 ObjectProvider<TransactionWritePipeline> writePipeline) {
         this.transactionService = transactionService;
+        this.transactionImportService = transactionImportService;
+        this.transactionExportService = transactionExportService;
+        this.ledgerVersion = ledgerVersion;
+        this.balanceService = balanceService;
+        this.writePipeline = writePipeline;
     }
 
+    // checkNotModified answers If-None-Match with a 304 before the service is called
     @GetMapping
-    public ResponseEntity<List<TransactionDto>> getAllTransactions() {
+    public ResponseEntity<List<TransactionDto>> getAllTransactions(WebRequest request) {
+        String eTag = ledgerVersion.ledgerETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         List<TransactionDto> transactions = transactionService.getAllTransactions();
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok().eTag(eTag).body(transactions);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<TransactionPageDto> getTransactionsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean runningBalance) {
+        TransactionPageDto page = runningBalance
+                ? balanceService.getTransactionsPageWithBalance(cursor, size)
+                : transactionService.getTransactionsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<TransactionPageDto> searchTransactions(
+            @ModelAttribute TransactionSearchRequestDto criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        TransactionPageDto page = transactionService.searchTransactions(criteria, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Words of q match description words by prefix; the criteria filters apply as for /search
+    @GetMapping("/search/text")
+    public ResponseEntity<TransactionPageDto> searchText(
+            @RequestParam String q,
+            @ModelAttribute TransactionSearchRequestDto criteria,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        TransactionPageDto page = transactionService.searchText(q, criteria, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping(value = "/export/csv", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Long categoryId) {
+        StreamingResponseBody body = out -> transactionExportService.exportCsv(from, to, categoryId, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/export/ndjson", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportNdjson(
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Long categoryId) {
+        StreamingResponseBody body = out -> transactionExportService.exportNdjson(from, to, categoryId, out);
+        return ResponseEntity.ok(body);
     }
 
     @GetMapping("/{id}")
@@ -32,10 +120,52 @@ public class TransactionController {
 
     @PostMapping
     public ResponseEntity<TransactionDto> createTransaction(@RequestBody TransactionRequestDto request) {
-        TransactionDto createdTransaction = transactionService.createTransaction(request);
+        // With the write pipeline enabled, concurrent creates are grouped into one commit
+        TransactionWritePipeline pipeline = writePipeline.getIfAvailable();
+        TransactionDto createdTransaction = pipeline != null
+                ? pipeline.createTransaction(request)
+                : transactionService.createTransaction(request);
         return new ResponseEntity<>(createdTransaction, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResultDto> importTransactions(InputStream body) {
+        BulkImportResultDto result = transactionImportService.importJsonArray(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkImportResultDto> importTransactionsNdjson(InputStream body) {
+        BulkImportResultDto result = transactionImportService.importNdjson(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/batch/move-category")
+    public ResponseEntity<BatchResultDto> moveCategory(
+            @RequestParam Long fromCategoryId,
+            @RequestParam Long toCategoryId) {
+        BatchResultDto result = transactionService.moveCategory(fromCategoryId, toCategoryId);
+        return ResponseEntity.ok(result);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<BatchResultDto> updateTransactions(@RequestBody BatchUpdateRequestDto request) {
+        BatchResultDto result = transactionService.updateTransactions(request);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<BatchResultDto> deleteTransactions(@RequestBody List<Long> ids) {
+        BatchResultDto result = transactionService.deleteTransactions(ids);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/batch/delete-matching")
+    public ResponseEntity<BatchResultDto> deleteMatching(@RequestBody TransactionSearchRequestDto criteria) {
+        BatchResultDto result = transactionService.deleteMatching(criteria);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TransactionDto> updateTransaction(@PathVariable Long id, @RequestBody TransactionRequestDto request) {
         TransactionDto updatedTransaction = transactionService.updateTransaction(id, request);
@@ -53,4 +183,13 @@ public class TransactionController {
         List<TransactionDto> transactions = transactionService.getTransactionsByCategory(categoryId);
         return ResponseEntity.ok(transactions);
     }
+
+    @GetMapping("/category/{categoryId}/page")
+    public ResponseEntity<TransactionPageDto> findTransactionsByCategoryPage(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        TransactionPageDto page = transactionService.getTransactionsByCategoryPage(categoryId, cursor, size);
+        return ResponseEntity.ok(page);
+    }
 }
\ No newline at end of file
@@ -2,10 +2,12 @@ package com.tipomeow.financial_tracker.controller;
 
 import com.tipomeow.financial_tracker.dto.CategoryDto;
 import com.tipomeow.financial_tracker.dto.CategoryRequestDto;
+import com.tipomeow.financial_tracker.dto.HomePageDto;
 import com.tipomeow.financial_tracker.dto.TransactionDto;
 import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
 import com.tipomeow.financial_tracker.entity.CategoryType;
 import com.tipomeow.financial_tracker.services.CategoryService;
+import com.tipomeow.financial_tracker.services.HomePageService;
 import com.tipomeow.financial_tracker.services.TransactionService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Controller;
@@ -28,6 +30,7 @@ public class ViewController {
 
     private final TransactionService transactionService;
     private final CategoryService categoryService;
+    private final HomePageService homePageService;
 
     @InitBinder
     public void initBinder(WebDataBinder binder) {
@@ -56,9 +59,11 @@ public class ViewController {
 
     @GetMapping
     public String viewHomePage(Model model) {
-        model.addAttribute("transactions", transactionService.getAllTransactions());
-        model.addAttribute("summary", transactionService.getCategoryExpenseSummary());
-        model.addAttribute("categories", categoryService.getAllCategories());
+        HomePageDto homePage = homePageService.loadHomePage();
+        model.addAttribute("transactions", homePage.getRecentTransactions());
+        model.addAttribute("summary", homePage.getSummary());
+        model.addAttribute("summaryAvailable", homePage.isSummaryAvailable());
+        model.addAttribute("categories", homePage.getCategories());
         model.addAttribute("newTransaction", new TransactionRequestDto());
         return "index";
     }
@@ -0,0 +1,17 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnalyticsVerificationDto {
+    private boolean consistent;
+    private long snapshotRows;
+    private long databaseRows;
+    private List<Long> mismatchedCategoryIds;
+}
@@ -0,0 +1,17 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchiveRunDto {
+    private long archivedCount;
+    private Instant cutoff;
+    private Instant archivedThrough;
+    private long elapsedMillis;
+}
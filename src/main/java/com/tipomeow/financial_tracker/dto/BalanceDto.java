@@ -0,0 +1,20 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceDto {
+    // Transactions strictly before this instant are included
+    private Instant at;
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal balance;
+    private long transactionCount;
+}
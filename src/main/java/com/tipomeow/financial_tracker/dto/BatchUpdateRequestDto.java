@@ -0,0 +1,13 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Fields left null are not changed
+@Data
+public class BatchUpdateRequestDto {
+    List<Long> ids;
+    Long categoryId;
+    String description;
+}
@@ -0,0 +1,13 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportErrorDto {
+    private long row;
+    private String message;
+}
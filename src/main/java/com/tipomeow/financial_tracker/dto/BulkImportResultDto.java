@@ -0,0 +1,19 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkImportResultDto {
+    private long received;
+    private long inserted;
+    private long failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<BulkImportErrorDto> errors;
+}
@@ -0,0 +1,15 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryCacheStatsDto {
+    private long hits;
+    private long misses;
+    private long reloads;
+    private int size;
+}
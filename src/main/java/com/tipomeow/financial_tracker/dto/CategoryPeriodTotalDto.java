@@ -0,0 +1,16 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryPeriodTotalDto {
+    private Long categoryId;
+    private BigDecimal total;
+    private Long transactionCount;
+}
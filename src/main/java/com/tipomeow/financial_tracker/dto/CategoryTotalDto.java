@@ -0,0 +1,19 @@
+package com.tipomeow.financial_tracker.dto;
+
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryTotalDto {
+    private Long categoryId;
+    private String categoryName;
+    private CategoryType categoryType;
+    private BigDecimal total;
+    private long transactionCount;
+}
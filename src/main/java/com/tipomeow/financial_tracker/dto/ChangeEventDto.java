@@ -0,0 +1,24 @@
+package com.tipomeow.financial_tracker.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.tipomeow.financial_tracker.entity.ChangeAggregateType;
+import com.tipomeow.financial_tracker.entity.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEventDto {
+    private Long sequence;
+    private ChangeAggregateType aggregateType;
+    private Long aggregateId;
+    private ChangeOperation operation;
+    // Stored as JSON and passed through unchanged
+    @JsonRawValue
+    private String payload;
+    private Instant createdAt;
+}
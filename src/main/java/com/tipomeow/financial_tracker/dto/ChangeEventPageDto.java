@@ -0,0 +1,18 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEventPageDto {
+    private List<ChangeEventDto> events;
+    // Pass back as since to continue; equals the request's since when nothing new was published
+    private long lastSequence;
+    // The requested events were pruned, so the consumer has to reload a full snapshot
+    private boolean resyncRequired;
+}
@@ -0,0 +1,17 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HomePageDto {
+    private List<TransactionDto> recentTransactions;
+    private List<CategoryExpenseSummaryDto> summary;
+    private boolean summaryAvailable;
+    private List<CategoryDto> categories;
+}
@@ -0,0 +1,7 @@
+package com.tipomeow.financial_tracker.dto;
+
+public enum ReportGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,15 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RollupVerificationDto {
+    private boolean consistent;
+    private long bucketCount;
+    private long missingOrStaleBuckets;
+    private long unexpectedBuckets;
+}
@@ -0,0 +1,17 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimeBucketTotalDto {
+    private Instant bucketStart;
+    private BigDecimal total;
+    private long transactionCount;
+}
@@ -0,0 +1,22 @@
+package com.tipomeow.financial_tracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimeSeriesBucketDto {
+    private Instant bucketStart;
+    private Instant bucketEnd;
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal net;
+    // Only filled when the report is split by category
+    private List<CategoryTotalDto> categories;
+}
@@ -1,5 +1,6 @@
 package com.tipomeow.financial_tracker.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.tipomeow.financial_tracker.entity.CategoryType;
 import lombok.Data;
 
@@ -16,4 +17,8 @@ public class TransactionDto {
     Long categoryId;
     String categoryName;
     CategoryType categoryType;
+
+    // Balance after this transaction; only filled by listings that ask for it
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    BigDecimal runningBalance;
 }
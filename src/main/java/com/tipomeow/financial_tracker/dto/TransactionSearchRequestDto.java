@@ -0,0 +1,19 @@
+package com.tipomeow.financial_tracker.dto;
+
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class TransactionSearchRequestDto {
+    Instant from;
+    Instant to;
+    List<Long> categoryIds;
+    CategoryType type;
+    BigDecimal minAmount;
+    BigDecimal maxAmount;
+    String description;
+}
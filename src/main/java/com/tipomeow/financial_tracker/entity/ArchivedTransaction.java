@@ -0,0 +1,41 @@
+package com.tipomeow.financial_tracker.entity;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Cold copy of a transaction past the archive horizon, same id and columns. Only the listing indexes are kept;
+// the description index and search tokens stay with the hot table.
+@Entity
+@Table(name = "archived_transactions", indexes = {
+        @Index(name = "idx_archived_transaction_time_id", columnList = "time, id"),
+        @Index(name = "idx_archived_transaction_category_time_id", columnList = "category_id, time, id")
+})
+@Data
+public class ArchivedTransaction {
+    @Id
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false,
+            foreignKey = @ForeignKey(name = "fk_archived_transactions_category"))
+    private Category category;
+    @Column(name = "description", length = 100)
+    private String description;
+    @Column(name = "amount", precision = 10, scale = 2)
+    private BigDecimal amount;
+    @Column(name = "time", nullable = false)
+    private Instant time;
+
+    // Detached hot-shaped copy, so listings and the mapper handle both tables alike
+    public Transaction toTransaction() {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setCategory(category);
+        transaction.setDescription(description);
+        transaction.setAmount(amount);
+        transaction.setTime(time);
+        return transaction;
+    }
+}
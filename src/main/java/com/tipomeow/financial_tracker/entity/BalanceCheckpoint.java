@@ -0,0 +1,27 @@
+package com.tipomeow.financial_tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Cumulative income and expense of all transactions before checkpoint_date (UTC), maintained by BalanceCheckpoints
+@Entity
+@Table(name = "balance_checkpoints")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceCheckpoint {
+    @Id
+    @Column(name = "checkpoint_date", nullable = false)
+    private LocalDate checkpointDate;
+    @Column(name = "income_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal incomeTotal;
+    @Column(name = "expense_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal expenseTotal;
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+}
@@ -0,0 +1,19 @@
+package com.tipomeow.financial_tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+// Rollup of transactions per category and UTC day, maintained by LedgerRollupService
+@Entity
+@Table(name = "category_daily_totals")
+@Data
+public class CategoryDailyTotal {
+    @EmbeddedId
+    private CategoryDailyTotalId id;
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+}
@@ -0,0 +1,21 @@
+package com.tipomeow.financial_tracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryDailyTotalId implements Serializable {
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+}
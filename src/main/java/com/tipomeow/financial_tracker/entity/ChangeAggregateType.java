@@ -0,0 +1,6 @@
+package com.tipomeow.financial_tracker.entity;
+
+public enum ChangeAggregateType {
+    TRANSACTION,
+    CATEGORY
+}
@@ -0,0 +1,35 @@
+package com.tipomeow.financial_tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Outbox row written in the same transaction as the change; the relay assigns sequence when it publishes
+@Entity
+@Table(name = "change_events", indexes = {
+        @Index(name = "idx_change_event_sequence_id", columnList = "sequence, id")
+})
+@Data
+public class ChangeEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "sequence", unique = true)
+    private Long sequence;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 12)
+    private ChangeAggregateType aggregateType;
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 12)
+    private ChangeOperation operation;
+    // JSON of the DTO after the change, null for deletes
+    @Column(name = "payload", length = 2000)
+    private String payload;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+    @Column(name = "published_at")
+    private Instant publishedAt;
+}
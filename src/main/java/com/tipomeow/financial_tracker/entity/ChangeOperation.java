@@ -0,0 +1,7 @@
+package com.tipomeow.financial_tracker.entity;
+
+public enum ChangeOperation {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -8,7 +8,12 @@ import jakarta.validation.constraints.DecimalMin;
 import lombok.Data;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transaction_time_id", columnList = "time, id"),
+        @Index(name = "idx_transaction_category_time_id", columnList = "category_id, time, id"),
+        @Index(name = "idx_transaction_amount", columnList = "amount"),
+        @Index(name = "idx_transaction_description", columnList = "description")
+})
 @Data
 public class Transaction {
     @Id
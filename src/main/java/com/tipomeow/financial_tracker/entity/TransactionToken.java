@@ -0,0 +1,22 @@
+package com.tipomeow.financial_tracker.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Inverted index of description words, maintained by TransactionTextIndex; rows go with their transaction
+@Entity
+@Table(name = "transaction_tokens", indexes = {
+        @Index(name = "idx_transaction_token_transaction", columnList = "transaction_id")
+})
+@Data
+public class TransactionToken {
+    @EmbeddedId
+    private TransactionTokenId id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("transactionId")
+    @JoinColumn(name = "transaction_id", foreignKey = @ForeignKey(name = "fk_transaction_tokens_transaction"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Transaction transaction;
+}
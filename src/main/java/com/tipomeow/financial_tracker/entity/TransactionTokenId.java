@@ -0,0 +1,20 @@
+package com.tipomeow.financial_tracker.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionTokenId implements Serializable {
+    @Column(name = "token", nullable = false, length = 32)
+    private String token;
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+}
@@ -0,0 +1,7 @@
+package com.tipomeow.financial_tracker.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.tipomeow.financial_tracker.exception;
+
+public class WriteQueueFullException extends RuntimeException {
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -13,6 +13,7 @@ public interface TransactionMapper {
     @Mapping(source = "category.id", target = "categoryId")
     @Mapping(source = "category.name", target = "categoryName")
     @Mapping(source = "category.type", target = "categoryType")
+    @Mapping(target = "runningBalance", ignore = true)
     TransactionDto toDto(Transaction transaction);
     List<TransactionDto> toDtoList(List<Transaction> transactions);
     @Mapping(target = "category", ignore = true)
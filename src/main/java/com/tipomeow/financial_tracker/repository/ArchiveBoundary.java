@@ -0,0 +1,47 @@
+package com.tipomeow.financial_tracker.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Upper bound on the times in {@code archived_transactions}, kept in memory so a listing that stays above it
+ * costs no archive query. Unknown until {@link #reset} runs at startup, and while unknown every read spans
+ * both tables. The archive job raises it before committing a chunk; restoring rows never lowers it, so it may
+ * be later than the newest archived row but never earlier.
+ */
+@Component
+public class ArchiveBoundary {
+
+    private volatile boolean known;
+    private volatile Instant archivedThrough;
+
+    public void reset(Instant newestArchived) {
+        archivedThrough = newestArchived;
+        known = true;
+    }
+
+    public synchronized void extendTo(Instant time) {
+        Instant current = archivedThrough;
+        if (current == null || time.isAfter(current)) {
+            archivedThrough = time;
+        }
+    }
+
+    public Instant archivedThrough() {
+        return archivedThrough;
+    }
+
+    public boolean isEmpty() {
+        return known && archivedThrough == null;
+    }
+
+    // Whether archived rows at or after from can exist; a null from means no lower bound
+    public boolean mayHoldRowsFrom(Instant from) {
+        if (!known) {
+            return true;
+        }
+        Instant through = archivedThrough;
+        return through != null && (from == null || !from.isAfter(through));
+    }
+}
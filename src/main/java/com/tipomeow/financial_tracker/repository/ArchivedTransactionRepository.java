@@ -0,0 +1,45 @@
+package com.tipomeow.financial_tracker.repository;
+
+import com.tipomeow.financial_tracker.entity.ArchivedTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+
+// Rows move between the tables with their ids; callers keep the search index and the boundary in step
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    // Hot and cold rows as one table, for the full scans that must see every transaction
+    String ALL_TRANSACTIONS_SQL =
+            "(SELECT id, category_id, description, amount, time FROM transactions " +
+            "UNION ALL SELECT id, category_id, description, amount, time FROM archived_transactions)";
+
+    Boolean existsByCategoryId(Long categoryId);
+
+    @Query("SELECT MAX(a.time) FROM ArchivedTransaction a")
+    Instant findNewestTime();
+
+    // Both counts in one statement, so a chunk moving between the tables is not counted twice or missed
+    @Query(value = "SELECT (SELECT COUNT(*) FROM transactions) + (SELECT COUNT(*) FROM archived_transactions)",
+            nativeQuery = true)
+    long countAllTransactions();
+
+    @Modifying
+    @Query(value = "INSERT INTO archived_transactions (id, category_id, description, amount, time) " +
+            "SELECT id, category_id, description, amount, time FROM transactions WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromHot(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT INTO transactions (id, category_id, description, amount, time) " +
+            "SELECT id, category_id, description, amount, time FROM archived_transactions WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyToHot(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM archived_transactions WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
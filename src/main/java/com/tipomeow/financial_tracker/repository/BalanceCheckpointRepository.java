@@ -0,0 +1,35 @@
+package com.tipomeow.financial_tracker.repository;
+
+import com.tipomeow.financial_tracker.entity.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, LocalDate> {
+
+    Optional<BalanceCheckpoint> findTopByOrderByCheckpointDateDesc();
+
+    Optional<BalanceCheckpoint> findTopByCheckpointDateLessThanEqualOrderByCheckpointDateDesc(LocalDate date);
+
+    // Plain insert: save() would select first because the id is assigned
+    @Modifying
+    @Query(value = "INSERT INTO balance_checkpoints (checkpoint_date, income_total, expense_total, transaction_count) " +
+            "VALUES (:date, :income, :expense, :count)", nativeQuery = true)
+    void insert(@Param("date") LocalDate date,
+                @Param("income") BigDecimal income,
+                @Param("expense") BigDecimal expense,
+                @Param("count") long count);
+
+    @Modifying
+    @Query(value = "DELETE FROM balance_checkpoints WHERE checkpoint_date > :date", nativeQuery = true)
+    int deleteAfter(@Param("date") LocalDate date);
+
+    @Modifying
+    @Query(value = "DELETE FROM balance_checkpoints", nativeQuery = true)
+    int deleteAllCheckpoints();
+}
@@ -0,0 +1,134 @@
+package com.tipomeow.financial_tracker.repository;
+
+import com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto;
+import com.tipomeow.financial_tracker.dto.CategoryPeriodTotalDto;
+import com.tipomeow.financial_tracker.entity.CategoryDailyTotal;
+import com.tipomeow.financial_tracker.entity.CategoryDailyTotalId;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface CategoryDailyTotalRepository extends JpaRepository<CategoryDailyTotal, CategoryDailyTotalId> {
+
+    // Recomputes buckets from raw transactions, hot and archived, bucketed by UTC day like LedgerRollupServiceImpl
+    String FRESH_TOTALS_SQL =
+            "SELECT category_id, CAST(time AT TIME ZONE 'UTC' AS DATE) AS bucket_date, " +
+            "COALESCE(SUM(amount), 0) AS total_amount, COUNT(*) AS transaction_count " +
+            "FROM " + ArchivedTransactionRepository.ALL_TRANSACTIONS_SQL + " t GROUP BY category_id, CAST(time AT TIME ZONE 'UTC' AS DATE)";
+
+    String STORED_TOTALS_SQL =
+            "SELECT category_id, bucket_date, total_amount, transaction_count FROM category_daily_totals";
+
+    @Modifying
+    @Query(value = "MERGE INTO category_daily_totals r " +
+            "USING (SELECT CAST(:categoryId AS BIGINT) AS category_id, CAST(:bucketDate AS DATE) AS bucket_date, " +
+            "CAST(:amount AS DECIMAL(19, 2)) AS amount, CAST(:count AS BIGINT) AS cnt) d " +
+            "ON r.category_id = d.category_id AND r.bucket_date = d.bucket_date " +
+            "WHEN MATCHED THEN UPDATE SET total_amount = r.total_amount + d.amount, " +
+            "transaction_count = r.transaction_count + d.cnt " +
+            "WHEN NOT MATCHED THEN INSERT (category_id, bucket_date, total_amount, transaction_count) " +
+            "VALUES (d.category_id, d.bucket_date, d.amount, d.cnt)",
+            nativeQuery = true)
+    void addDelta(@Param("categoryId") Long categoryId,
+                  @Param("bucketDate") LocalDate bucketDate,
+                  @Param("amount") BigDecimal amount,
+                  @Param("count") long count);
+
+    // Adds (sign 1) or subtracts (sign -1) the given transactions, grouped per bucket in one statement
+    @Modifying
+    @Query(value = "MERGE INTO category_daily_totals r " +
+            "USING (SELECT category_id, CAST(time AT TIME ZONE 'UTC' AS DATE) AS bucket_date, " +
+            "CAST(COALESCE(SUM(amount), 0) * :sign AS DECIMAL(19, 2)) AS amount, COUNT(*) * :sign AS cnt " +
+            "FROM transactions WHERE id IN (:ids) " +
+            "GROUP BY category_id, CAST(time AT TIME ZONE 'UTC' AS DATE)) d " +
+            "ON r.category_id = d.category_id AND r.bucket_date = d.bucket_date " +
+            "WHEN MATCHED THEN UPDATE SET total_amount = r.total_amount + d.amount, " +
+            "transaction_count = r.transaction_count + d.cnt " +
+            "WHEN NOT MATCHED THEN INSERT (category_id, bucket_date, total_amount, transaction_count) " +
+            "VALUES (d.category_id, d.bucket_date, d.amount, d.cnt)",
+            nativeQuery = true)
+    void addTotalsOf(@Param("ids") Collection<Long> transactionIds, @Param("sign") int sign);
+
+    @Modifying
+    @Query(value = "MERGE INTO category_daily_totals r " +
+            "USING (SELECT CAST(:toCategoryId AS BIGINT) AS category_id, bucket_date, total_amount, transaction_count " +
+            "FROM category_daily_totals WHERE category_id = :fromCategoryId) d " +
+            "ON r.category_id = d.category_id AND r.bucket_date = d.bucket_date " +
+            "WHEN MATCHED THEN UPDATE SET total_amount = r.total_amount + d.total_amount, " +
+            "transaction_count = r.transaction_count + d.transaction_count " +
+            "WHEN NOT MATCHED THEN INSERT (category_id, bucket_date, total_amount, transaction_count) " +
+            "VALUES (d.category_id, d.bucket_date, d.total_amount, d.transaction_count)",
+            nativeQuery = true)
+    void mergeCategoryInto(@Param("fromCategoryId") Long fromCategoryId, @Param("toCategoryId") Long toCategoryId);
+
+    @Modifying
+    @Query(value = "DELETE FROM category_daily_totals WHERE category_id = :categoryId", nativeQuery = true)
+    void deleteCategoryBuckets(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query(value = "DELETE FROM category_daily_totals WHERE transaction_count = 0", nativeQuery = true)
+    void deleteEmptyBuckets();
+
+    @Modifying
+    @Query(value = "DELETE FROM category_daily_totals " +
+            "WHERE category_id = :categoryId AND bucket_date = :bucketDate AND transaction_count = 0",
+            nativeQuery = true)
+    void deleteIfEmpty(@Param("categoryId") Long categoryId, @Param("bucketDate") LocalDate bucketDate);
+
+    @Query("SELECT new com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto(" +
+            "c.id, c.name, COALESCE(SUM(r.totalAmount), 0)) " +
+            "FROM Category c LEFT JOIN CategoryDailyTotal r ON r.id.categoryId = c.id " +
+            "WHERE c.type = :type " +
+            "GROUP BY c.id, c.name " +
+            "ORDER BY COALESCE(SUM(r.totalAmount), 0) DESC")
+    List<CategoryExpenseSummaryDto> sumTotalsByCategoryType(@Param("type") CategoryType type);
+
+    @Query("SELECT new com.tipomeow.financial_tracker.dto.CategoryPeriodTotalDto(" +
+            "r.id.categoryId, SUM(r.totalAmount), SUM(r.transactionCount)) " +
+            "FROM CategoryDailyTotal r " +
+            "WHERE r.id.bucketDate >= :from AND r.id.bucketDate < :to " +
+            "GROUP BY r.id.categoryId")
+    List<CategoryPeriodTotalDto> sumByCategoryBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.tipomeow.financial_tracker.dto.CategoryPeriodTotalDto(" +
+            "r.id.categoryId, SUM(r.totalAmount), SUM(r.transactionCount)) " +
+            "FROM CategoryDailyTotal r " +
+            "WHERE r.id.bucketDate < :day " +
+            "GROUP BY r.id.categoryId")
+    List<CategoryPeriodTotalDto> sumByCategoryBefore(@Param("day") LocalDate day);
+
+    @Query("SELECT r FROM CategoryDailyTotal r " +
+            "WHERE r.id.bucketDate >= :from AND r.id.bucketDate < :to " +
+            "ORDER BY r.id.bucketDate")
+    List<CategoryDailyTotal> findBucketsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT MIN(r.id.bucketDate) FROM CategoryDailyTotal r")
+    LocalDate findFirstBucketDate();
+
+    @Modifying
+    @Query(value = "DELETE FROM category_daily_totals", nativeQuery = true)
+    int deleteAllBuckets();
+
+    @Modifying
+    @Query(value = "INSERT INTO category_daily_totals (category_id, bucket_date, total_amount, transaction_count) " +
+            FRESH_TOTALS_SQL, nativeQuery = true)
+    int insertFromTransactions();
+
+    @Query(value = "SELECT COUNT(*) FROM (" + FRESH_TOTALS_SQL + " EXCEPT " + STORED_TOTALS_SQL + ") m",
+            nativeQuery = true)
+    long countMissingOrStaleBuckets();
+
+    @Query(value = "SELECT COUNT(*) FROM (" + STORED_TOTALS_SQL + " EXCEPT " + FRESH_TOTALS_SQL + ") m",
+            nativeQuery = true)
+    long countUnexpectedBuckets();
+
+    @Query(value = "SELECT COALESCE(SUM(transaction_count), 0) FROM category_daily_totals", nativeQuery = true)
+    long sumTransactionCounts();
+}
@@ -0,0 +1,51 @@
+package com.tipomeow.financial_tracker.repository;
+
+import com.tipomeow.financial_tracker.entity.ChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    // Both lookups are served by idx_change_event_sequence_id
+    List<ChangeEvent> findBySequenceIsNullOrderByIdAsc(Pageable pageable);
+
+    List<ChangeEvent> findBySequenceGreaterThanOrderBySequenceAsc(Long sequence, Pageable pageable);
+
+    @Query("SELECT MAX(e.sequence) FROM ChangeEvent e")
+    Long findMaxSequence();
+
+    @Query("SELECT MIN(e.sequence) FROM ChangeEvent e")
+    Long findMinSequence();
+
+    // The newest event is kept, so the relay resumes from its sequence even when everything else is old
+    @Modifying
+    @Query("DELETE FROM ChangeEvent e WHERE e.publishedAt < :before " +
+            "AND e.sequence < (SELECT MAX(x.sequence) FROM ChangeEvent x)")
+    int deletePublishedBefore(@Param("before") Instant before);
+
+    // Batch writes record one payload-less event per affected row in a single statement
+    @Modifying
+    @Query(value = "INSERT INTO change_events (aggregate_type, aggregate_id, operation, created_at) " +
+            "SELECT 'TRANSACTION', id, :operation, :createdAt FROM transactions WHERE id IN (:ids)",
+            nativeQuery = true)
+    int insertTransactionEvents(@Param("ids") Collection<Long> transactionIds,
+                                @Param("operation") String operation,
+                                @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO change_events (aggregate_type, aggregate_id, operation, created_at) " +
+            "SELECT 'TRANSACTION', id, :operation, :createdAt FROM transactions WHERE category_id = :categoryId",
+            nativeQuery = true)
+    int insertCategoryTransactionEvents(@Param("categoryId") Long categoryId,
+                                        @Param("operation") String operation,
+                                        @Param("createdAt") Instant createdAt);
+}
@@ -2,13 +2,74 @@ package com.tipomeow.financial_tracker.repository;
 
 import com.tipomeow.financial_tracker.entity.Transaction;
 import com.tipomeow.financial_tracker.entity.Category;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository <Transaction, Long>{
+// Finders whose results are mapped to TransactionDto fetch the category in the same select,
+// otherwise TransactionMapper triggers one lazy category load per row.
+public interface TransactionRepository extends JpaRepository <Transaction, Long>, TransactionSearchRepository {
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Transaction> findById(Long id);
+
+    @EntityGraph(attributePaths = "category")
     List<Transaction> findByCategory(Category category);
+    @EntityGraph(attributePaths = "category")
     List<Transaction> findByCategoryId(Long categoryId);
     Boolean existsByCategoryId(Long categoryId);
+    @EntityGraph(attributePaths = "category")
     List<Transaction> findAllByOrderByTimeDesc();
+
+    @EntityGraph(attributePaths = "category")
+    List<Transaction> findAllByOrderByTimeDescIdDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.time < :time OR (t.time = :time AND t.id < :id) " +
+            "ORDER BY t.time DESC, t.id DESC")
+    List<Transaction> findPageAfter(@Param("time") Instant time, @Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    List<Transaction> findByCategoryIdOrderByTimeDescIdDesc(Long categoryId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT t FROM Transaction t " +
+            "WHERE t.category.id = :categoryId " +
+            "AND (t.time < :time OR (t.time = :time AND t.id < :id)) " +
+            "ORDER BY t.time DESC, t.id DESC")
+    List<Transaction> findCategoryPageAfter(@Param("categoryId") Long categoryId,
+                                            @Param("time") Instant time,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    // Loads the rows of a ranked id list; the caller restores the ranking
+    @EntityGraph(attributePaths = "category")
+    List<Transaction> findByIdIn(Collection<Long> ids);
+
+    // Batch statements: callers keep the rollup and the outbox in step, the persistence context is bypassed
+    @Modifying
+    @Query(value = "UPDATE transactions SET category_id = COALESCE(CAST(:categoryId AS BIGINT), category_id), " +
+            "description = COALESCE(CAST(:description AS VARCHAR(100)), description) " +
+            "WHERE id IN (:ids)", nativeQuery = true)
+    int updateCategoryAndDescription(@Param("ids") Collection<Long> ids,
+                                     @Param("categoryId") Long categoryId,
+                                     @Param("description") String description);
+
+    @Modifying
+    @Query(value = "UPDATE transactions SET category_id = :toCategoryId WHERE category_id = :fromCategoryId",
+            nativeQuery = true)
+    int moveCategory(@Param("fromCategoryId") Long fromCategoryId, @Param("toCategoryId") Long toCategoryId);
+
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
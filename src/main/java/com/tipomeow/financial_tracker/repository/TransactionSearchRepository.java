@@ -0,0 +1,28 @@
+package com.tipomeow.financial_tracker.repository;
+
+import com.tipomeow.financial_tracker.dto.CategoryPeriodTotalDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
+import com.tipomeow.financial_tracker.entity.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Listings and sums span archived_transactions only when ArchiveBoundary says the range can reach it
+public interface TransactionSearchRepository {
+    List<Transaction> search(Specification<Transaction> specification, int limit);
+    List<Transaction> withArchived(List<Transaction> hot, Specification<Transaction> specification, int limit);
+    Optional<Transaction> findArchivedById(Long id);
+    List<Transaction> findArchivedByIdIn(Collection<Long> ids);
+    List<Long> findIds(Specification<Transaction> specification, long afterId, int limit);
+    List<Long> findArchivedIds(Specification<Transaction> specification, long afterId, int limit);
+    List<TextSearchHit> searchText(List<String> terms, TransactionSearchRequestDto criteria,
+                                   Collection<Long> categoryIds, TextSearchHit after, int limit);
+    List<CategoryPeriodTotalDto> sumByCategoryBetween(Instant from, Instant to);
+    List<CategoryPeriodTotalDto> sumByCategoryFromUpTo(Instant from, Instant time, Long id);
+
+    record TextSearchHit(Long id, int score, Instant time) {
+    }
+}
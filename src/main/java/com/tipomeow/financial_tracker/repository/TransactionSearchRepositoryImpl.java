@@ -0,0 +1,341 @@
+package com.tipomeow.financial_tracker.repository;
+
+import com.tipomeow.financial_tracker.dto.CategoryPeriodTotalDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
+import com.tipomeow.financial_tracker.entity.ArchivedTransaction;
+import com.tipomeow.financial_tracker.entity.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Criteria queries with a row limit and no count query
+public class TransactionSearchRepositoryImpl implements TransactionSearchRepository {
+
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getTime, Comparator.reverseOrder())
+            .thenComparing(Transaction::getId, Comparator.reverseOrder());
+    private static final Comparator<TextSearchHit> BEST_MATCH_FIRST = Comparator
+            .comparingInt(TextSearchHit::score).reversed()
+            .thenComparing(TextSearchHit::time, Comparator.reverseOrder())
+            .thenComparing(TextSearchHit::id, Comparator.reverseOrder());
+    // Description words are runs of letters and digits, as TransactionTextIndex splits them
+    private static final String WORD_START = "(^|[^\\p{L}\\p{N}])";
+    private static final String WORD_END = "([^\\p{L}\\p{N}]|$)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ArchiveBoundary archiveBoundary;
+
+    public TransactionSearchRepositoryImpl(ArchiveBoundary archiveBoundary) {
+        this.archiveBoundary = archiveBoundary;
+    }
+
+    @Override
+    public List<Transaction> search(Specification<Transaction> specification, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        // Every row has a category; an outer join keeps H2 from driving the plan from categories
+        root.fetch("category", JoinType.LEFT);
+        query.select(root);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("time")), cb.desc(root.get("id")));
+        List<Transaction> hot = entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+        return withArchived(hot, specification, limit);
+    }
+
+    // hot holds the first limit rows of the hot table, newest first. The boundary is read after that select,
+    // so rows the archive job moved in the meantime are found in the archive; a row seen in both is kept once.
+    @Override
+    public List<Transaction> withArchived(List<Transaction> hot, Specification<Transaction> specification, int limit) {
+        Instant reach = hot.size() >= limit ? hot.get(hot.size() - 1).getTime() : null;
+        if (!archiveBoundary.mayHoldRowsFrom(reach)) {
+            return hot;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ArchivedTransaction> query = cb.createQuery(ArchivedTransaction.class);
+        Root<ArchivedTransaction> root = query.from(ArchivedTransaction.class);
+        root.fetch("category", JoinType.LEFT);
+        query.select(root);
+        Predicate predicate = archived(specification).toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("time")), cb.desc(root.get("id")));
+        TypedQuery<ArchivedTransaction> typed = entityManager.createQuery(query);
+        if (limit < Integer.MAX_VALUE) {
+            typed.setMaxResults(limit);
+        }
+        List<ArchivedTransaction> cold = typed.getResultList();
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        Map<Long, Transaction> merged = new LinkedHashMap<>();
+        hot.forEach(transaction -> merged.put(transaction.getId(), transaction));
+        cold.forEach(archived -> merged.putIfAbsent(archived.getId(), archived.toTransaction()));
+        return merged.values().stream().sorted(NEWEST_FIRST).limit(limit).toList();
+    }
+
+    @Override
+    public Optional<Transaction> findArchivedById(Long id) {
+        if (archiveBoundary.isEmpty()) {
+            return Optional.empty();
+        }
+        return entityManager.createQuery(
+                        "SELECT a FROM ArchivedTransaction a JOIN FETCH a.category WHERE a.id = :id",
+                        ArchivedTransaction.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(ArchivedTransaction::toTransaction);
+    }
+
+    @Override
+    public List<Transaction> findArchivedByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty() || archiveBoundary.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(
+                        "SELECT a FROM ArchivedTransaction a JOIN FETCH a.category WHERE a.id IN :ids",
+                        ArchivedTransaction.class)
+                .setParameter("ids", ids)
+                .getResultStream()
+                .map(ArchivedTransaction::toTransaction)
+                .toList();
+    }
+
+    // Keyset over the primary key, so a batch can delete the ids it read and continue after the last one
+    @Override
+    public List<Long> findIds(Specification<Transaction> specification, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        query.select(root.get("id"));
+        Predicate after = cb.greaterThan(root.get("id"), afterId);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        query.where(predicate == null ? after : cb.and(predicate, after));
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Long> findArchivedIds(Specification<Transaction> specification, long afterId, int limit) {
+        if (archiveBoundary.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ArchivedTransaction> root = query.from(ArchivedTransaction.class);
+        query.select(root.get("id"));
+        Predicate after = cb.greaterThan(root.get("id"), afterId);
+        Predicate predicate = archived(specification).toPredicate(root, query, cb);
+        query.where(predicate == null ? after : cb.and(predicate, after));
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Served by idx_transaction_time_id; used for report buckets that do not line up with UTC days
+    @Override
+    public List<CategoryPeriodTotalDto> sumByCategoryBetween(Instant from, Instant to) {
+        Map<String, Instant> parameters = Map.of("from", from, "to", to);
+        return sumByCategory("t.time >= :from AND t.time < :to", parameters, from);
+    }
+
+    // Balance tail scan: rows from a checkpoint up to and including (time, id) in listing order
+    @Override
+    public List<CategoryPeriodTotalDto> sumByCategoryFromUpTo(Instant from, Instant time, Long id) {
+        Map<String, Object> parameters = Map.of("from", from, "time", time, "id", id);
+        return sumByCategory("t.time >= :from AND (t.time < :time OR (t.time = :time AND t.id <= :id))",
+                parameters, from);
+    }
+
+    // The condition is written for the alias t and reads the same in JPQL and SQL. A range that can reach the
+    // archive is summed over both tables in one statement, so a chunk being archived is counted exactly once.
+    private List<CategoryPeriodTotalDto> sumByCategory(String condition, Map<String, ?> parameters, Instant from) {
+        if (!archiveBoundary.mayHoldRowsFrom(from)) {
+            TypedQuery<CategoryPeriodTotalDto> query = entityManager.createQuery(
+                    "SELECT new com.tipomeow.financial_tracker.dto.CategoryPeriodTotalDto(" +
+                    "t.category.id, SUM(t.amount), COUNT(t)) FROM Transaction t WHERE " + condition +
+                    " GROUP BY t.category.id", CategoryPeriodTotalDto.class);
+            parameters.forEach(query::setParameter);
+            return query.getResultList();
+        }
+        Query query = entityManager.createNativeQuery(
+                "SELECT category_id, SUM(amount), COUNT(*) FROM (" +
+                "SELECT t.category_id, t.amount FROM transactions t WHERE " + condition +
+                " UNION ALL SELECT t.category_id, t.amount FROM archived_transactions t WHERE " + condition +
+                ") u GROUP BY category_id");
+        parameters.forEach((name, value) -> query.setParameter(name,
+                value instanceof Instant instant ? instant.atOffset(ZoneOffset.UTC) : value));
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows.stream()
+                .map(row -> new CategoryPeriodTotalDto(((Number) row[0]).longValue(), (BigDecimal) row[1],
+                        ((Number) row[2]).longValue()))
+                .toList();
+    }
+
+    // Filters use attribute names only, which ArchivedTransaction shares with Transaction
+    @SuppressWarnings("unchecked")
+    private static Specification<ArchivedTransaction> archived(Specification<Transaction> specification) {
+        return (Specification<ArchivedTransaction>) (Specification<?>) specification;
+    }
+
+    // Matches come from the token primary key: each term is a prefix range scan, an exact word weighs 2 and a
+    // longer word 1, and a transaction must match every term. Only the matches are joined to transactions for
+    // the filters and the (score, time, id) keyset. Archived rows have no tokens, so when the range can reach
+    // the archive its descriptions are matched by the same rules and the two rankings merged.
+    @Override
+    public List<TextSearchHit> searchText(List<String> terms, TransactionSearchRequestDto criteria,
+                                          Collection<Long> categoryIds, TextSearchHit after, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder postings = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) {
+                postings.append(" UNION ALL ");
+            }
+            postings.append("SELECT transaction_id, ").append(i).append(" AS term, ")
+                    .append("CASE WHEN token = :term").append(i).append(" THEN 2 ELSE 1 END AS weight ")
+                    .append("FROM transaction_tokens WHERE token LIKE :prefix").append(i);
+            // Terms are letters and digits only, so the prefix needs no LIKE escaping
+            parameters.put("term" + i, terms.get(i));
+            parameters.put("prefix" + i, terms.get(i) + "%");
+        }
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT m.transaction_id, m.score, t.time FROM (")
+                .append("SELECT transaction_id, SUM(weight) AS score FROM (")
+                .append("SELECT transaction_id, term, MAX(weight) AS weight FROM (").append(postings).append(") p ")
+                .append("GROUP BY transaction_id, term) w ")
+                .append("GROUP BY transaction_id HAVING COUNT(*) = :termCount) m ")
+                .append("JOIN transactions t ON t.id = m.transaction_id WHERE 1 = 1");
+        parameters.put("termCount", terms.size());
+        appendFilters(sql, parameters, criteria, categoryIds);
+        appendAfter(sql, parameters, "m.score", after);
+        List<TextSearchHit> hot = textSearchHits(sql, parameters, limit);
+
+        // Read after the hot select, so rows archived in the meantime are found in the archive
+        if (!archiveBoundary.mayHoldRowsFrom(criteria.getFrom())) {
+            return hot;
+        }
+        List<TextSearchHit> cold = searchArchivedText(terms, criteria, categoryIds, after, limit);
+        if (cold.isEmpty()) {
+            return hot;
+        }
+        Map<Long, TextSearchHit> merged = new LinkedHashMap<>();
+        hot.forEach(hit -> merged.put(hit.id(), hit));
+        cold.forEach(hit -> merged.putIfAbsent(hit.id(), hit));
+        return merged.values().stream().sorted(BEST_MATCH_FIRST).limit(limit).toList();
+    }
+
+    // A term matches at the start of a word and weighs 2 when it is the whole word, as in the token index.
+    // There is no index to read, so the archive rows in range are scanned.
+    private List<TextSearchHit> searchArchivedText(List<String> terms, TransactionSearchRequestDto criteria,
+                                                   Collection<Long> categoryIds, TextSearchHit after, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder score = new StringBuilder();
+        StringBuilder matches = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            score.append(i > 0 ? " + " : "")
+                    .append("CASE WHEN REGEXP_LIKE(LOWER(t.description), :word").append(i)
+                    .append(") THEN 2 ELSE 1 END");
+            matches.append(" AND REGEXP_LIKE(LOWER(t.description), :wordStart").append(i).append(")");
+            parameters.put("wordStart" + i, WORD_START + terms.get(i));
+            parameters.put("word" + i, WORD_START + terms.get(i) + WORD_END);
+        }
+        StringBuilder sql = new StringBuilder()
+                .append("SELECT t.id, t.score, t.time FROM (")
+                .append("SELECT t.id, t.time, ").append(score).append(" AS score ")
+                .append("FROM archived_transactions t WHERE 1 = 1").append(matches);
+        appendFilters(sql, parameters, criteria, categoryIds);
+        sql.append(") t WHERE 1 = 1");
+        appendAfter(sql, parameters, "t.score", after);
+        return textSearchHits(sql, parameters, limit);
+    }
+
+    private static void appendFilters(StringBuilder sql, Map<String, Object> parameters,
+                                      TransactionSearchRequestDto criteria, Collection<Long> categoryIds) {
+        if (criteria.getFrom() != null) {
+            sql.append(" AND t.time >= :from");
+            parameters.put("from", criteria.getFrom().atOffset(ZoneOffset.UTC));
+        }
+        if (criteria.getTo() != null) {
+            sql.append(" AND t.time < :to");
+            parameters.put("to", criteria.getTo().atOffset(ZoneOffset.UTC));
+        }
+        if (categoryIds != null) {
+            sql.append(" AND t.category_id IN (:categoryIds)");
+            parameters.put("categoryIds", categoryIds);
+        }
+        if (criteria.getMinAmount() != null) {
+            sql.append(" AND t.amount >= :minAmount");
+            parameters.put("minAmount", criteria.getMinAmount());
+        }
+        if (criteria.getMaxAmount() != null) {
+            sql.append(" AND t.amount <= :maxAmount");
+            parameters.put("maxAmount", criteria.getMaxAmount());
+        }
+    }
+
+    private static void appendAfter(StringBuilder sql, Map<String, Object> parameters, String score,
+                                    TextSearchHit after) {
+        if (after != null) {
+            sql.append(" AND (").append(score).append(" < :afterScore OR (").append(score).append(" = :afterScore AND ")
+                    .append("(t.time < :afterTime OR (t.time = :afterTime AND t.id < :afterId))))");
+            parameters.put("afterScore", after.score());
+            parameters.put("afterTime", after.time().atOffset(ZoneOffset.UTC));
+            parameters.put("afterId", after.id());
+        }
+    }
+
+    private List<TextSearchHit> textSearchHits(StringBuilder sql, Map<String, Object> parameters, int limit) {
+        sql.append(" ORDER BY 2 DESC, 3 DESC, 1 DESC");
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.setMaxResults(limit).getResultList();
+        return rows.stream()
+                .map(row -> new TextSearchHit(((Number) row[0]).longValue(), ((Number) row[1]).intValue(),
+                        instant(row[2])))
+                .toList();
+    }
+
+    private static Instant instant(Object value) {
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        return (Instant) value;
+    }
+}
@@ -0,0 +1,52 @@
+package com.tipomeow.financial_tracker.repository;
+
+import com.tipomeow.financial_tracker.entity.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+
+// Each filter maps onto an indexed column of the transactions table
+public final class TransactionSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> timeFrom(Instant from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("time"), from);
+    }
+
+    public static Specification<Transaction> timeBefore(Instant to) {
+        return (root, query, cb) -> cb.lessThan(root.get("time"), to);
+    }
+
+    public static Specification<Transaction> categoryIdIn(Collection<Long> categoryIds) {
+        return (root, query, cb) -> root.get("category").get("id").in(categoryIds);
+    }
+
+    public static Specification<Transaction> amountAtLeast(BigDecimal minAmount) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+
+    public static Specification<Transaction> amountAtMost(BigDecimal maxAmount) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+
+    public static Specification<Transaction> descriptionStartsWith(String prefix) {
+        String pattern = prefix
+                .replace(String.valueOf(LIKE_ESCAPE), "" + LIKE_ESCAPE + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_") + "%";
+        return (root, query, cb) -> cb.like(root.get("description"), pattern, LIKE_ESCAPE);
+    }
+
+    // Keyset predicate matching the (time DESC, id DESC) ordering of paged listings
+    public static Specification<Transaction> before(Instant time, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("time"), time),
+                cb.and(cb.equal(root.get("time"), time), cb.lessThan(root.get("id"), id)));
+    }
+}
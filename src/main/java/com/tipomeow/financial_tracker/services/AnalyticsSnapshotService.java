@@ -0,0 +1,22 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.AnalyticsVerificationDto;
+import com.tipomeow.financial_tracker.dto.CategoryTotalDto;
+import com.tipomeow.financial_tracker.dto.TimeBucketTotalDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+public interface AnalyticsSnapshotService {
+    void recordSavedAfterCommit(Long id, Long categoryId, Instant time, BigDecimal amount);
+    void recordDeletedAfterCommit(Long id);
+    void reloadAfterCommit();
+    void reload();
+    List<CategoryTotalDto> getCategoryTotals(CategoryType type, Instant from, Instant to);
+    List<CategoryTotalDto> getTopCategories(CategoryType type, Instant from, Instant to, int limit);
+    List<TimeBucketTotalDto> getBucketTotals(Instant from, Instant to, Duration bucket, Long categoryId);
+    AnalyticsVerificationDto verify();
+}
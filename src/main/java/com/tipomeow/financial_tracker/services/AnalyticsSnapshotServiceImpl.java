@@ -0,0 +1,288 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.AnalyticsVerificationDto;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.CategoryTotalDto;
+import com.tipomeow.financial_tracker.dto.TimeBucketTotalDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import com.tipomeow.financial_tracker.repository.ArchivedTransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Optional in-process analytics over a {@link LedgerColumns} copy of the ledger, enabled with
+ * {@code financial-tracker.analytics.enabled=true}. Queries are loops over primitive arrays instead of SQL
+ * and entity hydration.
+ * <p>
+ * The columns are loaded on startup with one forward-only JDBC query and then follow service writes after
+ * they commit. Bulk imports bypass the entity path, so they mark the snapshot stale once per run and the next
+ * query reloads it.
+ * <p>
+ * A reload builds new columns without holding the lock, so queries keep answering from the old columns and
+ * committing writers are not held up by the load. Changes that commit meanwhile are applied to the old
+ * columns, buffered, and replayed onto the new ones before they are swapped in. One reload runs at a time,
+ * and queries that found the snapshot stale wait for it instead of starting their own.
+ */
+@Slf4j
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+@ConditionalOnProperty(name = "financial-tracker.analytics.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class AnalyticsSnapshotServiceImpl implements AnalyticsSnapshotService {
+
+    private static final int MAX_BUCKETS = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryCache categoryCache;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private LedgerColumns columns = new LedgerColumns();
+    // Changes committed while a reload is building its columns; null when no reload runs. Guarded by lock.
+    private List<Consumer<LedgerColumns>> replay;
+    private volatile boolean stale = true;
+
+    @Value("${financial-tracker.analytics.fetch-size:10000}")
+    private int fetchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    @Override
+    public void recordSavedAfterCommit(Long id, Long categoryId, Instant time, BigDecimal amount) {
+        long cents = MoneyCents.fromAmount(amount);
+        afterCommit(() -> apply(target -> target.upsert(id, categoryId, time.toEpochMilli(), cents)));
+    }
+
+    @Override
+    public void recordDeletedAfterCommit(Long id) {
+        afterCommit(() -> apply(target -> target.remove(id)));
+    }
+
+    @Override
+    public void reloadAfterCommit() {
+        afterCommit(() -> stale = true);
+    }
+
+    // Upserts and removes are idempotent, so replaying a change the load already saw is harmless
+    @Override
+    public void reload() {
+        reloadLock.lock();
+        try {
+            long start = System.nanoTime();
+            write(() -> {
+                stale = false;
+                replay = new ArrayList<>();
+            });
+            LedgerColumns loaded = new LedgerColumns();
+            try {
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "SELECT id, category_id, time, amount FROM "
+                                    + ArchivedTransactionRepository.ALL_TRANSACTIONS_SQL + " t ORDER BY id",
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, (RowCallbackHandler) rs -> loaded.upsert(
+                        rs.getLong("id"),
+                        rs.getLong("category_id"),
+                        rs.getObject("time", OffsetDateTime.class).toInstant().toEpochMilli(),
+                        MoneyCents.fromAmount(rs.getBigDecimal("amount"))));
+            } catch (RuntimeException e) {
+                write(() -> {
+                    replay = null;
+                    stale = true;
+                });
+                throw e;
+            }
+            write(() -> {
+                replay.forEach(change -> change.accept(loaded));
+                replay = null;
+                columns = loaded;
+            });
+            log.info("Loaded analytics snapshot with {} transactions in {} ms",
+                    loaded.rowCount(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Override
+    public List<CategoryTotalDto> getCategoryTotals(CategoryType type, Instant from, Instant to) {
+        Map<Long, long[]> totals = read(() -> {
+            long[][] sums = columns.categoryTotals(lowerBound(from), upperBound(to));
+            Map<Long, long[]> byCategory = new HashMap<>();
+            for (int index = 0; index < columns.categoryCount(); index++) {
+                byCategory.put(columns.categoryIdAt(index), new long[]{sums[0][index], sums[1][index]});
+            }
+            return byCategory;
+        });
+        List<CategoryTotalDto> result = new ArrayList<>();
+        for (CategoryDto category : categoryCache.findAll()) {
+            if (type != null && category.getType() != type) {
+                continue;
+            }
+            long[] total = totals.getOrDefault(category.getId(), new long[2]);
+            result.add(new CategoryTotalDto(category.getId(), category.getName(), category.getType(),
+                    MoneyCents.toAmount(total[0]), total[1]));
+        }
+        result.sort(Comparator.comparing(CategoryTotalDto::getTotal).reversed());
+        return result;
+    }
+
+    @Override
+    public List<CategoryTotalDto> getTopCategories(CategoryType type, Instant from, Instant to, int limit) {
+        List<CategoryTotalDto> totals = getCategoryTotals(type, from, to);
+        return totals.subList(0, Math.max(0, Math.min(limit, totals.size())));
+    }
+
+    @Override
+    public List<TimeBucketTotalDto> getBucketTotals(Instant from, Instant to, Duration bucket, Long categoryId) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BusinessLogicException("A time range with from before to is required");
+        }
+        long bucketMillis = bucket.toMillis();
+        if (bucketMillis <= 0) {
+            throw new BusinessLogicException("Bucket width must be positive");
+        }
+        long rangeMillis = to.toEpochMilli() - from.toEpochMilli();
+        long buckets = (rangeMillis + bucketMillis - 1) / bucketMillis;
+        if (buckets > MAX_BUCKETS) {
+            throw new BusinessLogicException("Too many buckets, at most " + MAX_BUCKETS + " are allowed");
+        }
+        long[][] sums = read(() -> {
+            int category = categoryId == null ? LedgerColumns.REMOVED : columns.indexOfExisting(categoryId);
+            if (categoryId != null && category == LedgerColumns.REMOVED) {
+                return new long[2][(int) buckets];
+            }
+            return columns.bucketTotals(from.toEpochMilli(), to.toEpochMilli(), bucketMillis, (int) buckets, category);
+        });
+        List<TimeBucketTotalDto> result = new ArrayList<>((int) buckets);
+        for (int i = 0; i < buckets; i++) {
+            result.add(new TimeBucketTotalDto(from.plusMillis(i * bucketMillis), MoneyCents.toAmount(sums[0][i]), sums[1][i]));
+        }
+        return result;
+    }
+
+    // Compares per-category counts and sums with the database; only meaningful while no writes are in flight
+    @Override
+    public AnalyticsVerificationDto verify() {
+        Map<Long, long[]> database = new HashMap<>();
+        jdbcTemplate.query("SELECT category_id, COUNT(*) AS row_count, SUM(amount) AS total FROM "
+                        + ArchivedTransactionRepository.ALL_TRANSACTIONS_SQL + " t GROUP BY category_id",
+                (RowCallbackHandler) rs -> database.put(rs.getLong("category_id"),
+                        new long[]{MoneyCents.fromAmount(rs.getBigDecimal("total")), rs.getLong("row_count")}));
+        return read(() -> {
+            long[][] sums = columns.categoryTotals(Long.MIN_VALUE, Long.MAX_VALUE);
+            List<Long> mismatched = new ArrayList<>();
+            for (int index = 0; index < columns.categoryCount(); index++) {
+                long categoryId = columns.categoryIdAt(index);
+                long[] expected = database.getOrDefault(categoryId, new long[2]);
+                if (expected[0] != sums[0][index] || expected[1] != sums[1][index]) {
+                    mismatched.add(categoryId);
+                }
+            }
+            database.keySet().stream()
+                    .filter(categoryId -> columns.indexOfExisting(categoryId) == LedgerColumns.REMOVED)
+                    .forEach(mismatched::add);
+            long databaseRows = database.values().stream().mapToLong(total -> total[1]).sum();
+            return new AnalyticsVerificationDto(mismatched.isEmpty() && databaseRows == columns.rowCount(),
+                    columns.rowCount(), databaseRows, mismatched);
+        });
+    }
+
+    private interface LockedRead<T> {
+        T get();
+    }
+
+    private <T> T read(LockedRead<T> action) {
+        if (stale) {
+            reloadIfStale();
+        }
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers that queued behind a running reload find the snapshot fresh and return without loading again
+    private void reloadIfStale() {
+        reloadLock.lock();
+        try {
+            if (stale) {
+                reload();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void apply(Consumer<LedgerColumns> change) {
+        write(() -> {
+            change.accept(columns);
+            if (replay != null) {
+                replay.add(change);
+            }
+        });
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static long lowerBound(Instant from) {
+        return from == null ? Long.MIN_VALUE : from.toEpochMilli();
+    }
+
+    private static long upperBound(Instant to) {
+        return to == null ? Long.MAX_VALUE : to.toEpochMilli();
+    }
+}
@@ -0,0 +1,207 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.entity.BalanceCheckpoint;
+import com.tipomeow.financial_tracker.entity.Category;
+import com.tipomeow.financial_tracker.entity.CategoryDailyTotal;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.repository.BalanceCheckpointRepository;
+import com.tipomeow.financial_tracker.repository.CategoryDailyTotalRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Daily balance checkpoints: the cumulative income and expense before a UTC day, stored for every day with
+ * transactions up to the latest day asked for. Missing checkpoints are built forward from the latest stored
+ * one using the category x day rollup, so a balance query never sums the ledger from the beginning.
+ * <p>
+ * {@link LedgerRollupServiceImpl} reports every changed transaction time. After commit the earliest such day
+ * is only noted in memory; the next lookup deletes the checkpoints after it and rebuilds them. Writes at the
+ * present invalidate nothing. A build that read the rollup before a back-dated write committed is therefore
+ * undone by the following lookup.
+ * <p>
+ * {@link #validCheckpointAt} serves readers that combine a checkpoint with rows from their own snapshot. It
+ * builds nothing and only answers when no write is between commit and invalidation, no lookup is running and
+ * none finished since the reader's {@link #stamp()}; otherwise the reader sums the rollup itself.
+ */
+@Component
+public class BalanceCheckpoints {
+
+    private static final LocalDate ALL = LocalDate.of(1, 1, 1);
+
+    private final BalanceCheckpointRepository balanceCheckpointRepository;
+    private final CategoryDailyTotalRepository categoryDailyTotalRepository;
+    private final CategoryCache categoryCache;
+    private final TransactionTemplate transactionTemplate;
+    // Not synchronized: a virtual thread blocked in the build queries would pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    // Checkpoints after this day are stale; ALL means every checkpoint. Starts at ALL because a pending
+    // invalidation is lost when the process stops, and checkpoints are cheap to rebuild.
+    private final AtomicReference<LocalDate> invalidFrom = new AtomicReference<>(ALL);
+    // Writes whose rows may already be visible while their invalidation is not yet noted
+    private final AtomicInteger committingWrites = new AtomicInteger();
+    // Bumped when a lookup's transaction ends, so readers notice checkpoint rows changing under their snapshot
+    private final AtomicLong lookups = new AtomicLong();
+
+    public BalanceCheckpoints(BalanceCheckpointRepository balanceCheckpointRepository,
+                              CategoryDailyTotalRepository categoryDailyTotalRepository,
+                              CategoryCache categoryCache,
+                              PlatformTransactionManager transactionManager) {
+        this.balanceCheckpointRepository = balanceCheckpointRepository;
+        this.categoryDailyTotalRepository = categoryDailyTotalRepository;
+        this.categoryCache = categoryCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * The latest checkpoint on or before {@code day}, building missing ones first. Transactions between the
+     * checkpoint date and the end of {@code day} are not included and have to be scanned by the caller.
+     */
+    BalanceCheckpoint checkpointAt(LocalDate day) {
+        lock.lock();
+        LocalDate stale = invalidFrom.getAndSet(null);
+        try {
+            return transactionTemplate.execute(status -> {
+                if (ALL.equals(stale)) {
+                    balanceCheckpointRepository.deleteAllCheckpoints();
+                } else if (stale != null) {
+                    balanceCheckpointRepository.deleteAfter(stale);
+                }
+                return checkpointLocked(day);
+            });
+        } catch (RuntimeException e) {
+            if (stale != null) {
+                invalidate(stale);
+            }
+            throw e;
+        } finally {
+            lookups.incrementAndGet();
+            lock.unlock();
+        }
+    }
+
+    // Read before the caller's snapshot opens and passed back to validCheckpointAt
+    long stamp() {
+        return lookups.get();
+    }
+
+    /**
+     * The latest stored checkpoint on or before {@code day} that agrees with the caller's snapshot, which must
+     * have opened after {@code stamp} was taken and already have read from the database. Empty when there is no
+     * such checkpoint or its validity cannot be told.
+     */
+    Optional<BalanceCheckpoint> validCheckpointAt(LocalDate day, long stamp) {
+        // Order matters: a write leaves committingWrites only after noting its day in invalidFrom, and a lookup
+        // takes invalidFrom only while holding the lock
+        if (committingWrites.get() > 0) {
+            return Optional.empty();
+        }
+        LocalDate stale = invalidFrom.get();
+        if (ALL.equals(stale) || lock.isLocked() || lookups.get() != stamp) {
+            return Optional.empty();
+        }
+        LocalDate limit = stale != null && stale.isBefore(day) ? stale : day;
+        return balanceCheckpointRepository.findTopByCheckpointDateLessThanEqualOrderByCheckpointDateDesc(limit);
+    }
+
+    public void invalidateAfterCommit(Instant... times) {
+        LocalDate earliest = null;
+        for (Instant time : times) {
+            LocalDate day = LocalDate.ofInstant(time, ZoneOffset.UTC);
+            if (earliest == null || day.isBefore(earliest)) {
+                earliest = day;
+            }
+        }
+        if (earliest != null) {
+            LocalDate after = earliest;
+            afterCommit(() -> invalidate(after));
+        }
+    }
+
+    public void clearAfterCommit() {
+        afterCommit(() -> invalidate(ALL));
+    }
+
+    private void invalidate(LocalDate after) {
+        invalidFrom.accumulateAndGet(after, (current, next) ->
+                current == null || next.isBefore(current) ? next : current);
+    }
+
+    // Every day with transactions up to the latest checkpoint has one, so the days in between are empty
+    private BalanceCheckpoint checkpointLocked(LocalDate day) {
+        BalanceCheckpoint last = balanceCheckpointRepository.findTopByOrderByCheckpointDateDesc().orElse(null);
+        if (last != null && !last.getCheckpointDate().isBefore(day)) {
+            return balanceCheckpointRepository.findTopByCheckpointDateLessThanEqualOrderByCheckpointDateDesc(day)
+                    .orElseGet(() -> new BalanceCheckpoint(day, BigDecimal.ZERO, BigDecimal.ZERO, 0));
+        }
+        long income = last == null ? 0 : MoneyCents.fromAmount(last.getIncomeTotal());
+        long expense = last == null ? 0 : MoneyCents.fromAmount(last.getExpenseTotal());
+        long count = last == null ? 0 : last.getTransactionCount();
+        LocalDate from = last == null ? categoryDailyTotalRepository.findFirstBucketDate() : last.getCheckpointDate();
+        LocalDate current = last == null ? null : last.getCheckpointDate();
+        if (from != null) {
+            for (CategoryDailyTotal bucket : categoryDailyTotalRepository.findBucketsBetween(from, day)) {
+                LocalDate bucketDate = bucket.getId().getBucketDate();
+                if (!bucketDate.equals(current)) {
+                    balanceCheckpointRepository.insert(bucketDate,
+                            MoneyCents.toAmount(income), MoneyCents.toAmount(expense), count);
+                    current = bucketDate;
+                }
+                CategoryType type = categoryCache.findById(bucket.getId().getCategoryId())
+                        .map(Category::getType)
+                        .orElse(null);
+                long cents = MoneyCents.fromAmount(bucket.getTotalAmount());
+                if (type == CategoryType.INCOME) {
+                    income = MoneyCents.add(income, cents);
+                } else if (type == CategoryType.EXPENSE) {
+                    expense = MoneyCents.add(expense, cents);
+                }
+                count += bucket.getTransactionCount();
+            }
+        }
+        BalanceCheckpoint checkpoint = new BalanceCheckpoint(day,
+                MoneyCents.toAmount(income), MoneyCents.toAmount(expense), count);
+        balanceCheckpointRepository.insert(day, checkpoint.getIncomeTotal(), checkpoint.getExpenseTotal(), count);
+        return checkpoint;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    committing = true;
+                    committingWrites.incrementAndGet();
+                }
+
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (committing) {
+                        committingWrites.decrementAndGet();
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
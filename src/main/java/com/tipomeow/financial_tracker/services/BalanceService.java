@@ -0,0 +1,11 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.BalanceDto;
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
+
+import java.time.Instant;
+
+public interface BalanceService {
+    BalanceDto getBalanceAt(Instant at);
+    TransactionPageDto getTransactionsPageWithBalance(String cursor, int size);
+}
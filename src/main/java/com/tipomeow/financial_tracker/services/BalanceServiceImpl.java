@@ -0,0 +1,141 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.config.ReadRouting;
+import com.tipomeow.financial_tracker.dto.BalanceDto;
+import com.tipomeow.financial_tracker.dto.CategoryPeriodTotalDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
+import com.tipomeow.financial_tracker.entity.BalanceCheckpoint;
+import com.tipomeow.financial_tracker.entity.Category;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.repository.CategoryDailyTotalRepository;
+import com.tipomeow.financial_tracker.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Balance as of a point in time: one {@link BalanceCheckpoints} lookup for the start of the UTC day plus a
+ * scan of the transactions since that checkpoint, which is usually the same day.
+ * <p>
+ * {@link #getBalanceAt} is not transactional itself: the checkpoint lookup writes in its own transaction, and
+ * nesting it in a read-only one would hold two pooled connections per request. A page with running balances
+ * brings the checkpoints up to date first, then reads the page, a stored checkpoint and the rollup after it in
+ * one snapshot.
+ */
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+@RequiredArgsConstructor
+public class BalanceServiceImpl implements BalanceService {
+    private final BalanceCheckpoints balanceCheckpoints;
+    private final TransactionRepository transactionRepository;
+    private final CategoryDailyTotalRepository categoryDailyTotalRepository;
+    private final TransactionService transactionService;
+    private final CategoryCache categoryCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<ReadRouting> readRouting;
+
+    @Override
+    public BalanceDto getBalanceAt(Instant at) {
+        Instant asOf = at == null ? Instant.now() : at;
+        // Ids are positive, so (asOf, 0) excludes every transaction at asOf itself
+        long[] totals = totalsUpTo(asOf, 0L);
+        return toDto(asOf, totals);
+    }
+
+    // Listings run newest first: the first row's balance is computed, the rest are derived by walking back.
+    // The page and that balance come from one snapshot, so a write committing in between cannot skew the
+    // column: the stored checkpoint before the first row's day, the rollup from there to that day and the
+    // same-day tail are all read in it.
+    @Override
+    public TransactionPageDto getTransactionsPageWithBalance(String cursor, int size) {
+        // Applies pending invalidations and builds up to today in its own transaction, before the snapshot opens
+        balanceCheckpoints.checkpointAt(LocalDate.now(ZoneOffset.UTC));
+        long stamp = balanceCheckpoints.stamp();
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return snapshot.execute(status -> pageWithBalance(cursor, size, stamp));
+    }
+
+    private TransactionPageDto pageWithBalance(String cursor, int size, long stamp) {
+        TransactionPageDto page = transactionService.getTransactionsPage(cursor, size);
+        List<TransactionDto> transactions = page.getTransactions();
+        if (transactions.isEmpty()) {
+            return page;
+        }
+        TransactionDto first = transactions.get(0);
+        LocalDate day = LocalDate.ofInstant(first.getTime(), ZoneOffset.UTC);
+        long[] totals = new long[3];
+        // Checkpoints are kept for the primary; a replica snapshot may be older than them
+        ReadRouting routing = readRouting.getIfAvailable();
+        Optional<BalanceCheckpoint> checkpoint = routing != null && routing.readsFromReplica()
+                ? Optional.empty()
+                : balanceCheckpoints.validCheckpointAt(day, stamp);
+        if (checkpoint.isPresent()) {
+            totals[0] = MoneyCents.fromAmount(checkpoint.get().getIncomeTotal());
+            totals[1] = MoneyCents.fromAmount(checkpoint.get().getExpenseTotal());
+            totals[2] = checkpoint.get().getTransactionCount();
+            addTotals(totals, categoryDailyTotalRepository.sumByCategoryBetween(
+                    checkpoint.get().getCheckpointDate(), day));
+        } else {
+            addTotals(totals, categoryDailyTotalRepository.sumByCategoryBefore(day));
+        }
+        addTotals(totals, transactionRepository.sumByCategoryFromUpTo(
+                day.atStartOfDay(ZoneOffset.UTC).toInstant(), first.getTime(), first.getId()));
+        long balance = totals[0] - totals[1];
+        for (TransactionDto transaction : transactions) {
+            transaction.setRunningBalance(MoneyCents.toAmount(balance));
+            balance -= signedCents(transaction.getCategoryType(), MoneyCents.fromAmount(transaction.getAmount()));
+        }
+        return page;
+    }
+
+    // {income cents, expense cents, count} of the transactions up to and including (time, id)
+    private long[] totalsUpTo(Instant time, Long id) {
+        BalanceCheckpoint checkpoint = balanceCheckpoints.checkpointAt(LocalDate.ofInstant(time, ZoneOffset.UTC));
+        long[] totals = {
+                MoneyCents.fromAmount(checkpoint.getIncomeTotal()),
+                MoneyCents.fromAmount(checkpoint.getExpenseTotal()),
+                checkpoint.getTransactionCount()
+        };
+        Instant from = checkpoint.getCheckpointDate().atStartOfDay(ZoneOffset.UTC).toInstant();
+        addTotals(totals, transactionRepository.sumByCategoryFromUpTo(from, time, id));
+        return totals;
+    }
+
+    private void addTotals(long[] totals, List<CategoryPeriodTotalDto> byCategory) {
+        for (CategoryPeriodTotalDto row : byCategory) {
+            CategoryType type = categoryCache.findById(row.getCategoryId()).map(Category::getType).orElse(null);
+            long cents = MoneyCents.fromAmount(row.getTotal());
+            if (type == CategoryType.INCOME) {
+                totals[0] = MoneyCents.add(totals[0], cents);
+            } else if (type == CategoryType.EXPENSE) {
+                totals[1] = MoneyCents.add(totals[1], cents);
+            }
+            totals[2] += row.getTransactionCount();
+        }
+    }
+
+    private static long signedCents(CategoryType type, long cents) {
+        if (type == CategoryType.INCOME) {
+            return cents;
+        }
+        return type == CategoryType.EXPENSE ? -cents : 0;
+    }
+
+    private static BalanceDto toDto(Instant at, long[] totals) {
+        return new BalanceDto(at, MoneyCents.toAmount(totals[0]), MoneyCents.toAmount(totals[1]),
+                MoneyCents.toAmount(totals[0] - totals[1]), totals[2]);
+    }
+}
@@ -0,0 +1,155 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.config.ReadRouting;
+import com.tipomeow.financial_tracker.dto.CategoryCacheStatsDto;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.entity.Category;
+import com.tipomeow.financial_tracker.mapper.CategoryMapper;
+import com.tipomeow.financial_tracker.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-mostly copy of the categories table, keyed by id and by name.
+ * <p>
+ * Reads go to an immutable snapshot that is swapped as a whole (copy-on-write). Category mutations call
+ * {@link #invalidateAfterCommit()}, which drops the snapshot once the surrounding transaction commits; the
+ * next read reloads it. Cached {@link Category} instances are detached copies and must not be modified.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+    private final ObjectProvider<ReadRouting> readRouting;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    // Not synchronized: a virtual thread blocked in the reload query would pin its carrier
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    private record Snapshot(Map<Long, Category> byId, Map<String, Category> byName, List<CategoryDto> all) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        currentSnapshot();
+    }
+
+    // Unknown ids fall back to the database, so rows inserted outside the service are still found
+    public Optional<Category> findById(Long id) {
+        Category category = currentSnapshot().byId().get(id);
+        if (category != null) {
+            hits.increment();
+            return Optional.of(category);
+        }
+        misses.increment();
+        return categoryRepository.findById(id);
+    }
+
+    // The unique constraint on categories.name backs this lookup, so a miss is not re-checked in the database
+    public Optional<Category> findByName(String name) {
+        Category category = currentSnapshot().byName().get(name);
+        if (category != null) {
+            hits.increment();
+            return Optional.of(category);
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public List<CategoryDto> findAll() {
+        hits.increment();
+        return currentSnapshot().all();
+    }
+
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    public CategoryCacheStatsDto getStats() {
+        Snapshot current = snapshot;
+        int size = current == null ? 0 : current.byId().size();
+        return new CategoryCacheStatsDto(hits.sum(), misses.sum(), reloads.sum(), size);
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    private Snapshot reload() {
+        reloadLock.lock();
+        try {
+            return reloadLocked();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private Snapshot reloadLocked() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long loadedGeneration = generation.get();
+        // Inside a read-only transaction the rows may come from a lagging read replica: they are returned but
+        // not kept. Outside a transaction, the pin stops findAll's own read-only transaction going there.
+        ReadRouting routing = readRouting.getIfAvailable();
+        boolean fromReplica = routing != null && routing.readsFromReplica();
+        List<Category> rows = ReadRouting.onPrimary(categoryRepository::findAll);
+        Map<Long, Category> byId = new LinkedHashMap<>();
+        Map<String, Category> byName = new LinkedHashMap<>();
+        for (Category category : rows) {
+            Category copy = new Category();
+            copy.setId(category.getId());
+            copy.setName(category.getName());
+            copy.setType(category.getType());
+            byId.put(copy.getId(), copy);
+            byName.put(copy.getName(), copy);
+        }
+        Snapshot loaded = new Snapshot(
+                Map.copyOf(byId),
+                Map.copyOf(byName),
+                List.copyOf(categoryMapper.toDtoList(List.copyOf(byId.values())))
+        );
+        reloads.increment();
+        // An invalidation that raced with the load means the rows read may already be stale
+        if (generation.get() == loadedGeneration && !fromReplica) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+}
@@ -1,5 +1,6 @@
 package com.tipomeow.financial_tracker.services;
 
+import com.tipomeow.financial_tracker.dto.CategoryCacheStatsDto;
 import com.tipomeow.financial_tracker.dto.CategoryDto;
 import com.tipomeow.financial_tracker.dto.CategoryRequestDto;
 import com.tipomeow.financial_tracker.entity.Category;
@@ -13,4 +14,5 @@ public interface CategoryService {
     CategoryDto getCategoryById(Long id);
     CategoryDto updateCategory(Long id, CategoryRequestDto request);
     void deleteCategory(Long id);
+    CategoryCacheStatsDto getCacheStats();
 }
\ No newline at end of file
@@ -1,15 +1,20 @@
 package com.tipomeow.financial_tracker.services;
 
+import com.tipomeow.financial_tracker.dto.CategoryCacheStatsDto;
 import com.tipomeow.financial_tracker.dto.CategoryDto;
 import com.tipomeow.financial_tracker.dto.CategoryRequestDto;
 import com.tipomeow.financial_tracker.entity.Category;
+import com.tipomeow.financial_tracker.entity.ChangeAggregateType;
+import com.tipomeow.financial_tracker.entity.ChangeOperation;
 import com.tipomeow.financial_tracker.entity.Transaction;
 import com.tipomeow.financial_tracker.exception.BusinessLogicException;
 import com.tipomeow.financial_tracker.exception.DuplicateResourceException;
 import com.tipomeow.financial_tracker.exception.ResourceNotFoundException;
 import com.tipomeow.financial_tracker.mapper.CategoryMapper;
+import com.tipomeow.financial_tracker.repository.ArchivedTransactionRepository;
 import com.tipomeow.financial_tracker.repository.CategoryRepository;
 import com.tipomeow.financial_tracker.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.constraints.Null;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,36 +24,45 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(value = "financial.tracker.service", histogram = true)
 @Transactional
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryCache categoryCache;
+    private final LedgerVersion ledgerVersion;
+    private final ChangeOutbox changeOutbox;
+    private final BalanceCheckpoints balanceCheckpoints;
 
     @Override
     public CategoryDto createCategory(CategoryRequestDto request) {
-        Optional<Category> existingCategory=categoryRepository.findByName(request.getName());
+        Optional<Category> existingCategory=categoryCache.findByName(request.getName());
         if (existingCategory.isPresent()){
             throw new DuplicateResourceException("Category with name " + request.getName() + " already exists");
         }
         Category category = categoryMapper.toEntity(request);
         Category saved = categoryRepository.save(category);
-        return categoryMapper.toDto(saved);
+        categoryCache.invalidateAfterCommit();
+        ledgerVersion.categoriesChangedAfterCommit();
+        CategoryDto dto = categoryMapper.toDto(saved);
+        changeOutbox.append(ChangeAggregateType.CATEGORY, saved.getId(), ChangeOperation.CREATED, dto);
+        return dto;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CategoryDto> getAllCategories() {
-        List<Category> existingCategory=categoryRepository.findAll();
-        return categoryMapper.toDtoList(existingCategory);
+        return categoryCache.findAll();
     }
 
     @Override
     @Transactional(readOnly = true)
     public CategoryDto getCategoryById(Long id) {
-        return categoryRepository.findById(id)
+        return categoryCache.findById(id)
                 .map(categoryMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Category not found with id: " + id
@@ -61,17 +75,26 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
 
         if (!existingCategory.getName().equals(request.getName())) {
-            Optional<Category> duplicateCategory = categoryRepository.findByName(request.getName());
+            Optional<Category> duplicateCategory = categoryCache.findByName(request.getName());
             if (duplicateCategory.isPresent()) {
                 throw new DuplicateResourceException("Category with name " + request.getName() + " already exists");
             }
         }
 
+        boolean typeChanged = existingCategory.getType() != request.getType();
         existingCategory.setName(request.getName());
         existingCategory.setType(request.getType());
 
         Category updated = categoryRepository.save(existingCategory);
-        return categoryMapper.toDto(updated);
+        categoryCache.invalidateAfterCommit();
+        // Registered after the cache invalidation, so checkpoints rebuilt afterwards see the new type
+        if (typeChanged) {
+            balanceCheckpoints.clearAfterCommit();
+        }
+        ledgerVersion.categoriesChangedAfterCommit();
+        CategoryDto dto = categoryMapper.toDto(updated);
+        changeOutbox.append(ChangeAggregateType.CATEGORY, id, ChangeOperation.UPDATED, dto);
+        return dto;
     }
 
 
@@ -80,9 +103,17 @@ public class CategoryServiceImpl implements CategoryService {
         if (!categoryRepository.existsById(id)) {
             throw new ResourceNotFoundException("Category not found with id: " + id);
         }
-        if (transactionRepository.existsByCategoryId(id)) {
+        if (transactionRepository.existsByCategoryId(id) || archivedTransactionRepository.existsByCategoryId(id)) {
             throw new BusinessLogicException("Cannot delete category with existing transactions");
         }
         categoryRepository.deleteById(id);
+        categoryCache.invalidateAfterCommit();
+        ledgerVersion.categoriesChangedAfterCommit();
+        changeOutbox.append(ChangeAggregateType.CATEGORY, id, ChangeOperation.DELETED, null);
+    }
+
+    @Override
+    public CategoryCacheStatsDto getCacheStats() {
+        return categoryCache.getStats();
     }
 }
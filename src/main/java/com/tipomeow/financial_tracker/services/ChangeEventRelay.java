@@ -0,0 +1,110 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.ChangeEventDto;
+import com.tipomeow.financial_tracker.entity.ChangeEvent;
+import com.tipomeow.financial_tracker.repository.ChangeEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes outbox rows in batches. Each batch assigns consecutive sequence numbers in outbox id order and
+ * commits, then hands the events to {@link ChangeEventService#publish(List)} for live subscribers.
+ * <p>
+ * Sequences are assigned here rather than taken from the row id because ids are allocated before commit: a
+ * reader polling by id could pass over a row whose transaction commits late. A sequence only exists once the
+ * row is visible, so {@code since} never skips anything. This assumes one application instance per database.
+ */
+@Slf4j
+@Component
+public class ChangeEventRelay {
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ChangeEventService changeEventService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter published;
+    // Not synchronized: a virtual thread blocked in the batch query would pin its carrier
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    // Only touched while holding relayLock; -1 until read from the table
+    private long lastSequence = -1;
+
+    @Value("${financial-tracker.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${financial-tracker.outbox.retention:7d}")
+    private Duration retention;
+
+    public ChangeEventRelay(ChangeEventRepository changeEventRepository,
+                            ChangeEventService changeEventService,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+        this.changeEventRepository = changeEventRepository;
+        this.changeEventService = changeEventService;
+        this.transactionTemplate = transactionTemplate;
+        this.published = Counter.builder("financial.tracker.outbox.published")
+                .description("Change events published by the outbox relay")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${financial-tracker.outbox.relay-interval-ms:500}")
+    public void relay() {
+        relayLock.lock();
+        try {
+            List<ChangeEventDto> batch;
+            do {
+                batch = publishBatch();
+                if (!batch.isEmpty()) {
+                    published.increment(batch.size());
+                    changeEventService.publish(batch);
+                }
+            } while (batch.size() == batchSize);
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${financial-tracker.outbox.prune-cron:0 0 * * * *}")
+    public void prune() {
+        Integer deleted = transactionTemplate.execute(status ->
+                changeEventRepository.deletePublishedBefore(Instant.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Pruned {} published change events older than {}", deleted, retention);
+        }
+    }
+
+    private List<ChangeEventDto> publishBatch() {
+        try {
+            return transactionTemplate.execute(status -> {
+                if (lastSequence < 0) {
+                    Long max = changeEventRepository.findMaxSequence();
+                    lastSequence = max == null ? 0 : max;
+                }
+                List<ChangeEvent> pending = changeEventRepository.findBySequenceIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+                Instant now = Instant.now();
+                List<ChangeEventDto> batch = new ArrayList<>(pending.size());
+                for (ChangeEvent event : pending) {
+                    event.setSequence(++lastSequence);
+                    event.setPublishedAt(now);
+                    batch.add(ChangeEventServiceImpl.toDto(event));
+                }
+                return batch;
+            });
+        } catch (RuntimeException e) {
+            // The counter may be ahead of what committed
+            lastSequence = -1;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.ChangeEventDto;
+import com.tipomeow.financial_tracker.dto.ChangeEventPageDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+public interface ChangeEventService {
+    ChangeEventPageDto getChangesSince(long since, int limit);
+    SseEmitter subscribe(long since);
+    void publish(List<ChangeEventDto> events);
+}
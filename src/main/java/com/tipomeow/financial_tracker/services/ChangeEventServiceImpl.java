@@ -0,0 +1,170 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.ChangeEventDto;
+import com.tipomeow.financial_tracker.dto.ChangeEventPageDto;
+import com.tipomeow.financial_tracker.entity.ChangeEvent;
+import com.tipomeow.financial_tracker.repository.ChangeEventRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads published change events by sequence and pushes them to server-sent event subscribers.
+ * <p>
+ * A subscriber first replays the stored events after its {@code since} and then receives the batches the
+ * relay publishes. Each subscriber has its own bounded queue and sender thread: {@link #publish(List)} only
+ * enqueues, live batches wait in the queue until the replay has caught up, and sequences already sent are
+ * skipped, so every subscriber sees each sequence once and in order.
+ */
+@Slf4j
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+@RequiredArgsConstructor
+public class ChangeEventServiceImpl implements ChangeEventService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ChangeEventRepository changeEventRepository;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${financial-tracker.outbox.sse-timeout:30m}")
+    private Duration sseTimeout;
+
+    @Value("${financial-tracker.outbox.sse-queue-capacity:64}")
+    private int queueCapacity;
+
+    @Override
+    public ChangeEventPageDto getChangesSince(long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ChangeEventDto> events = readAfter(since, pageSize);
+        long lastSequence = events.isEmpty() ? since : events.get(events.size() - 1).getSequence();
+        // Pruning always keeps the newest event, so a gap before the oldest stored sequence means events were lost
+        Long oldest = changeEventRepository.findMinSequence();
+        boolean resyncRequired = oldest != null && since < oldest - 1;
+        return new ChangeEventPageDto(events, lastSequence, resyncRequired);
+    }
+
+    @Override
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(sseTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(subscriber::stop);
+        emitter.onTimeout(subscriber::stop);
+        emitter.onError(error -> subscriber.stop());
+        subscribers.add(subscriber);
+        // The backlog and the live batches are sent from the subscriber's own thread, so a slow client never
+        // holds up the relay or the other subscribers
+        subscriber.start();
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<ChangeEventDto> events) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.push(events);
+        }
+    }
+
+    private List<ChangeEventDto> readAfter(long since, int limit) {
+        return changeEventRepository.findBySequenceGreaterThanOrderBySequenceAsc(since, PageRequest.of(0, limit))
+                .stream()
+                .map(ChangeEventServiceImpl::toDto)
+                .toList();
+    }
+
+    static ChangeEventDto toDto(ChangeEvent event) {
+        return new ChangeEventDto(event.getSequence(), event.getAggregateType(), event.getAggregateId(),
+                event.getOperation(), event.getPayload(), event.getCreatedAt());
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<List<ChangeEventDto>> pending;
+        // Only touched by the sender thread
+        private long lastSent;
+        private volatile boolean closed;
+        private volatile Thread sender;
+
+        Subscriber(SseEmitter emitter, long since) {
+            this.emitter = emitter;
+            this.pending = new ArrayBlockingQueue<>(queueCapacity);
+            this.lastSent = since;
+        }
+
+        void start() {
+            sender = Thread.ofVirtual().name("change-stream").start(this::run);
+        }
+
+        // Batches published from now on are queued, so whatever the replay's last read misses is sent after it
+        private void run() {
+            try {
+                List<ChangeEventDto> events;
+                do {
+                    events = readAfter(lastSent, MAX_PAGE_SIZE);
+                    send(events);
+                } while (!closed && events.size() == MAX_PAGE_SIZE);
+                while (!closed) {
+                    send(pending.take());
+                }
+            } catch (InterruptedException e) {
+                // Stopped by the emitter's completion, timeout or error
+            } catch (RuntimeException e) {
+                close(e);
+            }
+        }
+
+        // Called by the relay and never blocks: a subscriber that falls behind is dropped and resumes on reconnect
+        void push(List<ChangeEventDto> events) {
+            if (!closed && !pending.offer(events)) {
+                close(new IllegalStateException("Subscriber fell " + queueCapacity + " batches behind"));
+            }
+        }
+
+        void stop() {
+            closed = true;
+            subscribers.remove(this);
+            Thread thread = sender;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+
+        private void send(List<ChangeEventDto> events) {
+            if (closed) {
+                return;
+            }
+            try {
+                for (ChangeEventDto event : events) {
+                    if (event.getSequence() > lastSent) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(event.getSequence()))
+                                .name("change")
+                                .data(event));
+                        lastSent = event.getSequence();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(e);
+            }
+        }
+
+        private void close(Exception cause) {
+            log.debug("Dropping change stream subscriber: {}", cause.getMessage());
+            stop();
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tipomeow.financial_tracker.entity.ChangeAggregateType;
+import com.tipomeow.financial_tracker.entity.ChangeEvent;
+import com.tipomeow.financial_tracker.entity.ChangeOperation;
+import com.tipomeow.financial_tracker.repository.ChangeEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Appends change events to the {@code change_events} outbox. Joins the caller's transaction, so an event
+ * exists exactly when the change it describes committed; {@link ChangeEventRelay} publishes it afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeOutbox {
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(ChangeAggregateType aggregateType, Long aggregateId, ChangeOperation operation, Object payload) {
+        ChangeEvent event = new ChangeEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setOperation(operation);
+        event.setPayload(payload == null ? null : toJson(payload));
+        event.setCreatedAt(Instant.now());
+        changeEventRepository.save(event);
+    }
+
+    // Rows that no longer exist are skipped, so call this before a delete
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendTransactions(Collection<Long> transactionIds, ChangeOperation operation) {
+        changeEventRepository.insertTransactionEvents(transactionIds, operation.name(), Instant.now());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendCategoryTransactions(Long categoryId, ChangeOperation operation) {
+        changeEventRepository.insertCategoryTransactionEvents(categoryId, operation.name(), Instant.now());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change event payload", e);
+        }
+    }
+}
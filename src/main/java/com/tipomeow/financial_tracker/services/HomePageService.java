@@ -0,0 +1,7 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.HomePageDto;
+
+public interface HomePageService {
+    HomePageDto loadHomePage();
+}
@@ -0,0 +1,158 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.config.ReadRouting;
+import com.tipomeow.financial_tracker.config.SqlStatementCounter;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto;
+import com.tipomeow.financial_tracker.dto.HomePageDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.exception.ServiceUnavailableException;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Loads the three independent parts of the home page concurrently, each through its own service call and
+ * therefore its own read-only transaction, so the page costs roughly the slowest load instead of the sum.
+ * <p>
+ * The loads run on a small pool owned by this service rather than a shared {@code Executor} bean, which
+ * would replace Spring Boot's {@code applicationTaskExecutor} used by the streaming exports. Its queue is
+ * bounded: a page that finds it full, or whose required parts miss the timeout, answers 503, and its
+ * queued loads are cancelled so abandoned pages do not keep the pool busy.
+ * <p>
+ * Running loads are never interrupted: an interrupt inside an H2 file read closes the database file for every
+ * connection. Each load instead runs in a read-only transaction whose timeout is what is left of the deadline,
+ * which Spring applies as the JDBC query timeout of every statement the load issues.
+ */
+@Slf4j
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+@RequiredArgsConstructor
+public class HomePageServiceImpl implements HomePageService {
+
+    private final TransactionService transactionService;
+    private final CategoryService categoryService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${financial-tracker.home.recent-transactions:50}")
+    private int recentTransactions;
+
+    @Value("${financial-tracker.home.timeout:2s}")
+    private Duration timeout;
+
+    @Value("${financial-tracker.home.threads:6}")
+    private int threads;
+
+    @Value("${financial-tracker.home.queue-capacity:60}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void startExecutor() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("home-page-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public HomePageDto loadHomePage() {
+        // A request pinned to the primary (read-your-writes) keeps the pin on the pool threads, and their
+        // statements count towards the request's SQL statement metric
+        Executor executor = SqlStatementCounter.propagating(ReadRouting.propagating(this.executor));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<Future<?>> started = new ArrayList<>(3);
+        try {
+            Future<List<TransactionDto>> transactions = submit(executor, started, deadline,
+                    () -> transactionService.getTransactionsPage(null, recentTransactions).getTransactions());
+            Future<List<CategoryDto>> categories = submit(executor, started, deadline,
+                    categoryService::getAllCategories);
+            Future<List<CategoryExpenseSummaryDto>> summary = submit(executor, started, deadline,
+                    transactionService::getCategoryExpenseSummary);
+
+            // The summary panel is optional: a slow or failing aggregate degrades to a notice instead of an error page
+            List<CategoryExpenseSummaryDto> summaryResult;
+            try {
+                summaryResult = await(summary, deadline);
+            } catch (RuntimeException ex) {
+                log.warn("Category expense summary unavailable for the home page", ex);
+                summaryResult = null;
+            }
+            return new HomePageDto(
+                    await(transactions, deadline),
+                    summaryResult == null ? List.of() : summaryResult,
+                    summaryResult != null,
+                    await(categories, deadline));
+        } finally {
+            // No-op for finished loads; a queued load is skipped when it reaches a thread, a running one is left
+            // to its query timeout
+            started.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private <T> Future<T> submit(Executor executor, List<Future<?>> started, long deadlineNanos, Supplier<T> load) {
+        FutureTask<T> task = new FutureTask<>(() -> withinDeadline(deadlineNanos, load));
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceUnavailableException("Home page is busy, retry later");
+        }
+        started.add(task);
+        return task;
+    }
+
+    // The service's own read-only transaction joins this one and inherits its timeout, rounded up to whole seconds
+    private <T> T withinDeadline(long deadlineNanos, Supplier<T> load) {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            throw new ServiceUnavailableException("Home page did not load in time, retry later");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout((int) Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + 999_999_999L)));
+        return transaction.execute(status -> load.get());
+    }
+
+    // Rethrows the service's own exception rather than the ExecutionException wrapping it
+    private static <T> T await(Future<T> future, long deadlineNanos) {
+        try {
+            return future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new ServiceUnavailableException("Home page did not load in time, retry later");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while loading the home page");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
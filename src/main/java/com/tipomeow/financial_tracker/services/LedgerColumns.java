@@ -0,0 +1,190 @@
+package com.tipomeow.financial_tracker.services;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * The ledger as parallel primitive columns, one slot per transaction, sorted by id. About 28 bytes per row,
+ * so ten million transactions take under 300 MB.
+ * <p>
+ * Categories are stored as dense indexes into {@link #categoryIdAt(int)}. Removed rows are tombstoned with a
+ * negative category index and compacted once they make up half the slots. Not thread-safe: callers guard
+ * reads and writes with a read/write lock.
+ */
+class LedgerColumns {
+
+    static final int REMOVED = -1;
+    // Scans over more rows than this are split into chunks summed on the common fork-join pool
+    private static final int CHUNK = 1 << 20;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] timeEpochMillis = new long[INITIAL_CAPACITY];
+    private long[] amountCents = new long[INITIAL_CAPACITY];
+    private int[] categoryIdx = new int[INITIAL_CAPACITY];
+    private int size;
+    private int removed;
+
+    private final Map<Long, Integer> categoryIndex = new HashMap<>();
+    private long[] categoryIds = new long[16];
+
+    int rowCount() {
+        return size - removed;
+    }
+
+    int categoryCount() {
+        return categoryIndex.size();
+    }
+
+    long categoryIdAt(int index) {
+        return categoryIds[index];
+    }
+
+    // Idempotent, so replaying a change the initial load already saw is harmless
+    void upsert(long id, long categoryId, long time, long cents) {
+        int category = indexOf(categoryId);
+        int position = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            if (categoryIdx[position] == REMOVED) {
+                removed--;
+            }
+            set(position, id, category, time, cents);
+            return;
+        }
+        int insertAt = -(position + 1);
+        ensureCapacity(size + 1);
+        if (insertAt < size) {
+            // Only for ids committed out of order; appends are the common case
+            int tail = size - insertAt;
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, tail);
+            System.arraycopy(timeEpochMillis, insertAt, timeEpochMillis, insertAt + 1, tail);
+            System.arraycopy(amountCents, insertAt, amountCents, insertAt + 1, tail);
+            System.arraycopy(categoryIdx, insertAt, categoryIdx, insertAt + 1, tail);
+        }
+        set(insertAt, id, category, time, cents);
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0 || categoryIdx[position] == REMOVED) {
+            return;
+        }
+        categoryIdx[position] = REMOVED;
+        amountCents[position] = 0L;
+        removed++;
+        if (removed > size / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Sums rows with {@code from <= time < to} per category index: {@code [0]} holds cents, {@code [1]} counts.
+     */
+    long[][] categoryTotals(long from, long to) {
+        return scan(categoryIds.length, from, to, (row, totals) -> {
+            int category = categoryIdx[row];
+            totals[0][category] = MoneyCents.add(totals[0][category], amountCents[row]);
+            totals[1][category]++;
+        });
+    }
+
+    /**
+     * Sums rows with {@code from <= time < to} into fixed-width buckets starting at {@code from}, optionally
+     * for one category index only ({@code category < 0} means all).
+     */
+    long[][] bucketTotals(long from, long to, long bucketMillis, int buckets, int category) {
+        return scan(buckets, from, to, (row, totals) -> {
+            if (category >= 0 && categoryIdx[row] != category) {
+                return;
+            }
+            int bucket = (int) ((timeEpochMillis[row] - from) / bucketMillis);
+            totals[0][bucket] = MoneyCents.add(totals[0][bucket], amountCents[row]);
+            totals[1][bucket]++;
+        });
+    }
+
+    int indexOfExisting(long categoryId) {
+        Integer index = categoryIndex.get(categoryId);
+        return index == null ? REMOVED : index;
+    }
+
+    private interface RowFold {
+        void accept(int row, long[][] totals);
+    }
+
+    private long[][] scan(int width, long from, long to, RowFold fold) {
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        if (chunks <= 1) {
+            return scanChunk(0, size, width, from, to, fold);
+        }
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> scanChunk(chunk * CHUNK, Math.min(size, (chunk + 1) * CHUNK), width, from, to, fold))
+                .reduce(LedgerColumns::merge)
+                .orElseGet(() -> new long[2][width]);
+    }
+
+    private long[][] scanChunk(int start, int end, int width, long from, long to, RowFold fold) {
+        long[][] totals = new long[2][width];
+        for (int row = start; row < end; row++) {
+            long time = timeEpochMillis[row];
+            if (categoryIdx[row] != REMOVED && time >= from && time < to) {
+                fold.accept(row, totals);
+            }
+        }
+        return totals;
+    }
+
+    private static long[][] merge(long[][] left, long[][] right) {
+        for (int i = 0; i < left[0].length; i++) {
+            left[0][i] = MoneyCents.add(left[0][i], right[0][i]);
+            left[1][i] += right[1][i];
+        }
+        return left;
+    }
+
+    private int indexOf(long categoryId) {
+        Integer index = categoryIndex.get(categoryId);
+        if (index != null) {
+            return index;
+        }
+        int next = categoryIndex.size();
+        if (next == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, next * 2);
+        }
+        categoryIds[next] = categoryId;
+        categoryIndex.put(categoryId, next);
+        return next;
+    }
+
+    private void set(int position, long id, int category, long time, long cents) {
+        ids[position] = id;
+        categoryIdx[position] = category;
+        timeEpochMillis[position] = time;
+        amountCents[position] = cents;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        timeEpochMillis = Arrays.copyOf(timeEpochMillis, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        categoryIdx = Arrays.copyOf(categoryIdx, capacity);
+    }
+
+    private void compact() {
+        int kept = 0;
+        for (int row = 0; row < size; row++) {
+            if (categoryIdx[row] != REMOVED) {
+                set(kept++, ids[row], categoryIdx[row], timeEpochMillis[row], amountCents[row]);
+            }
+        }
+        size = kept;
+        removed = 0;
+    }
+}
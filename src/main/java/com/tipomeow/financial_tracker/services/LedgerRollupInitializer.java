@@ -0,0 +1,24 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.config.ReadRouting;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LedgerRollupInitializer {
+    private final LedgerRollupService ledgerRollupService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfOutOfSync() {
+        // Decides whether to rewrite the rollup, so it compares the primary's rows, not a replica's
+        if (!ReadRouting.onPrimary(ledgerRollupService::isInSync)) {
+            log.info("Category daily rollup is out of sync with transactions, rebuilding");
+            ledgerRollupService.rebuild();
+        }
+    }
+}
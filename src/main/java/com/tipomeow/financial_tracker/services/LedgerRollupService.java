@@ -0,0 +1,27 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto;
+import com.tipomeow.financial_tracker.dto.RollupVerificationDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface LedgerRollupService {
+    void recordCreated(Long categoryId, Instant time, BigDecimal amount);
+    void recordDeleted(Long categoryId, Instant time, BigDecimal amount);
+    void recordUpdated(Long oldCategoryId, Instant oldTime, BigDecimal oldAmount,
+                       Long newCategoryId, Instant newTime, BigDecimal newAmount);
+    void recordImported(Collection<TransactionRequestDto> transactions);
+    void recordBatchCreated(Collection<TransactionRequestDto> transactions);
+    void recordBulkRemoved(Collection<Long> transactionIds);
+    void recordBulkAdded(Collection<Long> transactionIds);
+    void recordCategoryMoved(Long fromCategoryId, Long toCategoryId);
+    List<CategoryExpenseSummaryDto> getCategoryTotals(CategoryType type);
+    RollupVerificationDto rebuild();
+    RollupVerificationDto verify();
+    boolean isInSync();
+}
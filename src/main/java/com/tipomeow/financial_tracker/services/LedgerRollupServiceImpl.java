@@ -0,0 +1,175 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto;
+import com.tipomeow.financial_tracker.dto.RollupVerificationDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.entity.CategoryDailyTotalId;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.repository.ArchivedTransactionRepository;
+import com.tipomeow.financial_tracker.repository.CategoryDailyTotalRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the category x day rollup in the caller's transaction, so a rolled back write never leaves
+ * the rollup ahead of the transactions table. Days are UTC days.
+ */
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+@Transactional
+@RequiredArgsConstructor
+public class LedgerRollupServiceImpl implements LedgerRollupService {
+    private final CategoryDailyTotalRepository categoryDailyTotalRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final LedgerVersion ledgerVersion;
+    private final ReportBucketCache reportBucketCache;
+    private final BalanceCheckpoints balanceCheckpoints;
+
+    @Override
+    public void recordCreated(Long categoryId, Instant time, BigDecimal amount) {
+        reportBucketCache.evictAfterCommit(time);
+        balanceCheckpoints.invalidateAfterCommit(time);
+        categoryDailyTotalRepository.addDelta(categoryId, bucketOf(time), amountOf(amount), 1);
+    }
+
+    @Override
+    public void recordDeleted(Long categoryId, Instant time, BigDecimal amount) {
+        reportBucketCache.evictAfterCommit(time);
+        balanceCheckpoints.invalidateAfterCommit(time);
+        LocalDate bucketDate = bucketOf(time);
+        categoryDailyTotalRepository.addDelta(categoryId, bucketDate, amountOf(amount).negate(), -1);
+        categoryDailyTotalRepository.deleteIfEmpty(categoryId, bucketDate);
+    }
+
+    @Override
+    public void recordUpdated(Long oldCategoryId, Instant oldTime, BigDecimal oldAmount,
+                              Long newCategoryId, Instant newTime, BigDecimal newAmount) {
+        reportBucketCache.evictAfterCommit(oldTime, newTime);
+        balanceCheckpoints.invalidateAfterCommit(oldTime, newTime);
+        LocalDate oldBucket = bucketOf(oldTime);
+        LocalDate newBucket = bucketOf(newTime);
+        if (Objects.equals(oldCategoryId, newCategoryId) && oldBucket.equals(newBucket)) {
+            BigDecimal difference = amountOf(newAmount).subtract(amountOf(oldAmount));
+            if (difference.signum() != 0) {
+                categoryDailyTotalRepository.addDelta(newCategoryId, newBucket, difference, 0);
+            }
+            return;
+        }
+        recordDeleted(oldCategoryId, oldTime, oldAmount);
+        recordCreated(newCategoryId, newTime, newAmount);
+    }
+
+    @Override
+    public void recordImported(Collection<TransactionRequestDto> transactions) {
+        reportBucketCache.clearAfterCommit();
+        balanceCheckpoints.invalidateAfterCommit(timesOf(transactions));
+        addFolded(transactions);
+    }
+
+    // Group-commit batches are small and mostly dated now, so they evict by time instead of clearing the cache
+    @Override
+    public void recordBatchCreated(Collection<TransactionRequestDto> transactions) {
+        Instant[] times = timesOf(transactions);
+        reportBucketCache.evictAfterCommit(times);
+        balanceCheckpoints.invalidateAfterCommit(times);
+        addFolded(transactions);
+    }
+
+    // Batch statements read the affected rows themselves: call this before rows change, recordBulkAdded after
+    @Override
+    public void recordBulkRemoved(Collection<Long> transactionIds) {
+        reportBucketCache.clearAfterCommit();
+        balanceCheckpoints.clearAfterCommit();
+        categoryDailyTotalRepository.addTotalsOf(transactionIds, -1);
+        categoryDailyTotalRepository.deleteEmptyBuckets();
+    }
+
+    @Override
+    public void recordBulkAdded(Collection<Long> transactionIds) {
+        reportBucketCache.clearAfterCommit();
+        balanceCheckpoints.clearAfterCommit();
+        categoryDailyTotalRepository.addTotalsOf(transactionIds, 1);
+    }
+
+    @Override
+    public void recordCategoryMoved(Long fromCategoryId, Long toCategoryId) {
+        reportBucketCache.clearAfterCommit();
+        balanceCheckpoints.clearAfterCommit();
+        categoryDailyTotalRepository.mergeCategoryInto(fromCategoryId, toCategoryId);
+        categoryDailyTotalRepository.deleteCategoryBuckets(fromCategoryId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryExpenseSummaryDto> getCategoryTotals(CategoryType type) {
+        return categoryDailyTotalRepository.sumTotalsByCategoryType(type);
+    }
+
+    @Override
+    public RollupVerificationDto rebuild() {
+        categoryDailyTotalRepository.deleteAllBuckets();
+        categoryDailyTotalRepository.insertFromTransactions();
+        ledgerVersion.transactionsChangedAfterCommit();
+        reportBucketCache.clearAfterCommit();
+        balanceCheckpoints.clearAfterCommit();
+        return verify();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RollupVerificationDto verify() {
+        long missingOrStale = categoryDailyTotalRepository.countMissingOrStaleBuckets();
+        long unexpected = categoryDailyTotalRepository.countUnexpectedBuckets();
+        return new RollupVerificationDto(
+                missingOrStale == 0 && unexpected == 0,
+                categoryDailyTotalRepository.count(),
+                missingOrStale,
+                unexpected
+        );
+    }
+
+    // Cheap startup check: rows written around the service (data.sql, console edits) change the row count
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isInSync() {
+        return categoryDailyTotalRepository.sumTransactionCounts() == archivedTransactionRepository.countAllTransactions();
+    }
+
+    // Rows are folded per bucket first, so a chunk costs one upsert per distinct category and day.
+    // Each bucket accumulates {cents, count} in place, so the fold allocates per bucket rather than per row.
+    private void addFolded(Collection<TransactionRequestDto> transactions) {
+        Map<CategoryDailyTotalId, long[]> totals = new HashMap<>();
+        for (TransactionRequestDto transaction : transactions) {
+            CategoryDailyTotalId bucket = new CategoryDailyTotalId(transaction.getCategoryId(), bucketOf(transaction.getTime()));
+            long[] total = totals.computeIfAbsent(bucket, key -> new long[2]);
+            total[0] = MoneyCents.add(total[0], MoneyCents.fromAmount(transaction.getAmount()));
+            total[1]++;
+        }
+        totals.forEach((bucket, total) -> categoryDailyTotalRepository.addDelta(
+                bucket.getCategoryId(), bucket.getBucketDate(), MoneyCents.toAmount(total[0]), total[1]));
+    }
+
+    private static Instant[] timesOf(Collection<TransactionRequestDto> transactions) {
+        return transactions.stream().map(TransactionRequestDto::getTime).distinct().toArray(Instant[]::new);
+    }
+
+    private LocalDate bucketOf(Instant time) {
+        return LocalDate.ofInstant(time, ZoneOffset.UTC);
+    }
+
+    private BigDecimal amountOf(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO : amount;
+    }
+}
@@ -0,0 +1,122 @@
+package com.tipomeow.financial_tracker.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic versions of the transaction ledger and of the category list, used as strong ETags so polling
+ * clients get a 304 without any repository call while nothing has changed.
+ * <p>
+ * Every mutating service method bumps the matching version once its transaction commits. The epoch is
+ * random per process, so ETags issued before a restart never match. Writes that bypass the services
+ * (the H2 console, {@code data.sql}) are not seen until the next service write.
+ * <p>
+ * With a read replica, a read right after a write can return the old rows under the new ETag. Each version is
+ * then bumped once more when {@code max-lag} has passed since its last change, so clients refetch what the
+ * replica has caught up on.
+ */
+@Component
+public class LedgerVersion {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Version transactions = new Version();
+    private final Version categories = new Version();
+
+    @Value("${financial-tracker.read-replica.enabled:false}")
+    private boolean readReplica;
+
+    @Value("${financial-tracker.read-replica.max-lag:2s}")
+    private Duration maxLag;
+
+    private ScheduledExecutorService settler;
+
+    private static final class Version {
+        private final AtomicLong value = new AtomicLong();
+        private final AtomicLong lastChangeNanos = new AtomicLong();
+        private final AtomicBoolean settlePending = new AtomicBoolean();
+    }
+
+    @PostConstruct
+    void startSettler() {
+        if (readReplica) {
+            settler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("ledger-version-settle").daemon().factory());
+        }
+    }
+
+    @PreDestroy
+    void stopSettler() {
+        if (settler != null) {
+            settler.shutdownNow();
+        }
+    }
+
+    public void transactionsChangedAfterCommit() {
+        afterCommit(transactions);
+    }
+
+    public void categoriesChangedAfterCommit() {
+        afterCommit(categories);
+    }
+
+    // Transaction DTOs and the summary embed category names, so they depend on both versions.
+    // Callers read the ETag before querying: a write racing the query can only make the ETag older than the body.
+    public String ledgerETag() {
+        return "\"" + epoch + "-" + transactions.value.get() + "-" + categories.value.get() + "\"";
+    }
+
+    public String categoriesETag() {
+        return "\"" + epoch + "-c" + categories.value.get() + "\"";
+    }
+
+    private void afterCommit(Version version) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed(version);
+                }
+            });
+        } else {
+            changed(version);
+        }
+    }
+
+    private void changed(Version version) {
+        version.value.incrementAndGet();
+        if (settler != null) {
+            version.lastChangeNanos.set(System.nanoTime());
+            if (version.settlePending.compareAndSet(false, true)) {
+                settler.schedule(() -> settle(version), maxLag.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Writes keep pushing the settle back; each of them already bumped the version
+    private void settle(Version version) {
+        long sinceChange = System.nanoTime() - version.lastChangeNanos.get();
+        if (sinceChange < maxLag.toNanos()) {
+            settler.schedule(() -> settle(version), maxLag.toNanos() - sinceChange, TimeUnit.NANOSECONDS);
+            return;
+        }
+        version.settlePending.set(false);
+        version.value.incrementAndGet();
+        // A change that landed after the check above found the settle still pending and did not schedule one
+        if (System.nanoTime() - version.lastChangeNanos.get() < maxLag.toNanos()
+                && version.settlePending.compareAndSet(false, true)) {
+            settler.schedule(() -> settle(version), maxLag.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
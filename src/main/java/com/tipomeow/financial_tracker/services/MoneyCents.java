@@ -0,0 +1,38 @@
+package com.tipomeow.financial_tracker.services;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money as a {@code long} count of cents, for aggregation loops that would otherwise allocate a
+ * {@link BigDecimal} per row. {@code transactions.amount} is {@code DECIMAL(10,2)}, so every stored amount
+ * fits exactly; sums are checked and throw {@link ArithmeticException} on overflow instead of wrapping.
+ * Convert back with {@link #toAmount(long)} at the API boundary.
+ */
+public final class MoneyCents {
+
+    private static final int SCALE = 2;
+
+    private MoneyCents() {
+    }
+
+    // Throws ArithmeticException for sub-cent fractions or values beyond the long range
+    public static long fromAmount(BigDecimal amount) {
+        return amount == null ? 0L : amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static long add(long cents, long moreCents) {
+        return Math.addExact(cents, moreCents);
+    }
+
+    public static long sum(long[] cents) {
+        long total = 0L;
+        for (long value : cents) {
+            total = Math.addExact(total, value);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,88 @@
+package com.tipomeow.financial_tracker.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-category totals of closed report buckets, keyed by zone and bucket bounds. A closed period rarely
+ * changes, but back-dated writes do happen: {@link LedgerRollupServiceImpl} evicts every bucket containing a
+ * changed transaction time after commit, and a bulk import clears the cache.
+ * <p>
+ * Values are {@code categoryId -> {cents, count}} and must not be modified.
+ */
+@Component
+public class ReportBucketCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    record Key(ZoneId zone, Instant start, Instant end) {
+    }
+
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Key, Map<Long, long[]>> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Map<Long, long[]>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    long generation() {
+        return generation.get();
+    }
+
+    synchronized Map<Long, long[]> get(Key key) {
+        return entries.get(key);
+    }
+
+    // A value computed while an eviction ran may predate the evicted write, so it is dropped
+    synchronized void put(Key key, Map<Long, long[]> totals, long computedAtGeneration) {
+        if (generation.get() == computedAtGeneration) {
+            entries.put(key, totals);
+        }
+    }
+
+    public void evictAfterCommit(Instant... times) {
+        afterCommit(() -> evict(times));
+    }
+
+    public void clearAfterCommit() {
+        afterCommit(this::clear);
+    }
+
+    private synchronized void evict(Instant... times) {
+        generation.incrementAndGet();
+        entries.keySet().removeIf(key -> {
+            for (Instant time : times) {
+                if (!time.isBefore(key.start()) && time.isBefore(key.end())) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    private synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
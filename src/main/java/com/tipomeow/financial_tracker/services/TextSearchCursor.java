@@ -0,0 +1,44 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import com.tipomeow.financial_tracker.repository.TransactionSearchRepository.TextSearchHit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a description search page, ordered by (score DESC, time DESC, id DESC).
+ * Opaque to clients like {@link TransactionCursor}.
+ */
+public record TextSearchCursor(int score, Instant time, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = score + SEPARATOR + time.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    TextSearchHit hit() {
+        return new TextSearchHit(id, score, time);
+    }
+
+    public static TextSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            if (first < 0 || first == last) {
+                throw new BusinessLogicException("Invalid page cursor: " + cursor);
+            }
+            int score = Integer.parseInt(raw.substring(0, first));
+            Instant time = Instant.parse(raw.substring(first + 1, last));
+            Long id = Long.valueOf(raw.substring(last + 1));
+            return new TextSearchCursor(score, time, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessLogicException("Invalid page cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.ReportGranularity;
+import com.tipomeow.financial_tracker.dto.TimeSeriesBucketDto;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+public interface TimeSeriesReportService {
+    List<TimeSeriesBucketDto> getIncomeExpenseReport(Instant from, Instant to, ReportGranularity granularity,
+                                                     ZoneId zone, boolean byCategory);
+}
@@ -0,0 +1,274 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.config.ReadRouting;
+import com.tipomeow.financial_tracker.config.SqlStatementCounter;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.CategoryPeriodTotalDto;
+import com.tipomeow.financial_tracker.dto.CategoryTotalDto;
+import com.tipomeow.financial_tracker.dto.ReportGranularity;
+import com.tipomeow.financial_tracker.dto.TimeSeriesBucketDto;
+import com.tipomeow.financial_tracker.entity.CategoryDailyTotal;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import com.tipomeow.financial_tracker.repository.CategoryDailyTotalRepository;
+import com.tipomeow.financial_tracker.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Income, expense and net per calendar bucket in the caller's time zone. Buckets that are whole UTC days are
+ * answered together from one read of the daily rollup. Every other bucket is one grouped query on the
+ * transactions table, run on a small pool owned by this service with at most
+ * {@code financial-tracker.reports.max-in-flight} of a request's queries queued or running at a time.
+ * <p>
+ * Buckets that lie completely inside the range and ended before now are kept in {@link ReportBucketCache}.
+ */
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+@RequiredArgsConstructor
+public class TimeSeriesReportServiceImpl implements TimeSeriesReportService {
+
+    private static final int MAX_BUCKETS = 5_000;
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryDailyTotalRepository categoryDailyTotalRepository;
+    private final CategoryCache categoryCache;
+    private final ReportBucketCache reportBucketCache;
+
+    @Value("${financial-tracker.reports.threads:4}")
+    private int threads;
+
+    @Value("${financial-tracker.reports.max-in-flight:4}")
+    private int maxInFlight;
+
+    private ExecutorService executor;
+
+    private record Bucket(Instant start, Instant end, Instant queryFrom, Instant queryTo) {
+        boolean complete() {
+            return start.equals(queryFrom) && end.equals(queryTo);
+        }
+    }
+
+    @PostConstruct
+    void startExecutor() {
+        executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("report-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public List<TimeSeriesBucketDto> getIncomeExpenseReport(Instant from, Instant to, ReportGranularity granularity,
+                                                            ZoneId zone, boolean byCategory) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BusinessLogicException("A time range with from before to is required");
+        }
+        List<Bucket> buckets = bucketsOf(from, to, granularity, zone);
+        Instant now = Instant.now();
+        long generation = reportBucketCache.generation();
+
+        // Each slot is written once, by the request thread or by the query task; join publishes the latter
+        List<Map<Long, long[]>> totals = new ArrayList<>(Collections.nCopies(buckets.size(), null));
+        List<Integer> fromRollup = new ArrayList<>();
+        List<Integer> fromTransactions = new ArrayList<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            Map<Long, long[]> cached = cacheable(bucket, now) ? reportBucketCache.get(key(zone, bucket)) : null;
+            if (cached != null) {
+                totals.set(i, cached);
+            } else if (isUtcMidnight(bucket.queryFrom()) && isUtcMidnight(bucket.queryTo())) {
+                fromRollup.add(i);
+            } else {
+                fromTransactions.add(i);
+            }
+        }
+
+        // At most maxInFlight queries of this request are queued or running at once, so one long report
+        // cannot fill the shared pool's queue ahead of everyone else's
+        Executor executor = SqlStatementCounter.propagating(ReadRouting.propagating(this.executor));
+        Deque<CompletableFuture<Void>> inFlight = new ArrayDeque<>();
+        for (int i : fromTransactions) {
+            if (inFlight.size() == maxInFlight) {
+                join(inFlight.removeFirst());
+            }
+            Bucket bucket = buckets.get(i);
+            inFlight.addLast(CompletableFuture.runAsync(() -> {
+                Map<Long, long[]> computed = toTotals(
+                        transactionRepository.sumByCategoryBetween(bucket.queryFrom(), bucket.queryTo()));
+                totals.set(i, computed);
+                cacheIfClosed(zone, bucket, now, computed, generation);
+            }, executor));
+        }
+        // The rollup buckets are answered by one query on this thread while the last queries run
+        sumFromRollup(buckets, fromRollup, totals);
+        for (int i : fromRollup) {
+            cacheIfClosed(zone, buckets.get(i), now, totals.get(i), generation);
+        }
+        while (!inFlight.isEmpty()) {
+            join(inFlight.removeFirst());
+        }
+
+        Map<Long, CategoryDto> categories = categoryCache.findAll().stream()
+                .collect(Collectors.toMap(CategoryDto::getId, Function.identity()));
+        List<TimeSeriesBucketDto> report = new ArrayList<>(buckets.size());
+        for (int i = 0; i < buckets.size(); i++) {
+            report.add(toDto(buckets.get(i), totals.get(i), categories, byCategory));
+        }
+        return report;
+    }
+
+    private List<Bucket> bucketsOf(Instant from, Instant to, ReportGranularity granularity, ZoneId zone) {
+        List<Bucket> buckets = new ArrayList<>();
+        ZonedDateTime start = alignedStart(from.atZone(zone), granularity);
+        while (start.toInstant().isBefore(to)) {
+            ZonedDateTime end = switch (granularity) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+            };
+            Instant bucketStart = start.toInstant();
+            Instant bucketEnd = end.toInstant();
+            buckets.add(new Bucket(bucketStart, bucketEnd,
+                    bucketStart.isBefore(from) ? from : bucketStart,
+                    bucketEnd.isAfter(to) ? to : bucketEnd));
+            if (buckets.size() > MAX_BUCKETS) {
+                throw new BusinessLogicException("Too many buckets, at most " + MAX_BUCKETS + " are allowed");
+            }
+            start = end;
+        }
+        return buckets;
+    }
+
+    private static ZonedDateTime alignedStart(ZonedDateTime time, ReportGranularity granularity) {
+        LocalDate date = time.toLocalDate();
+        LocalDate first = switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+        return first.atStartOfDay(time.getZone());
+    }
+
+    private static ReportBucketCache.Key key(ZoneId zone, Bucket bucket) {
+        return new ReportBucketCache.Key(zone, bucket.start(), bucket.end());
+    }
+
+    private static boolean cacheable(Bucket bucket, Instant now) {
+        return bucket.complete() && !bucket.end().isAfter(now);
+    }
+
+    private void cacheIfClosed(ZoneId zone, Bucket bucket, Instant now, Map<Long, long[]> totals, long generation) {
+        if (cacheable(bucket, now)) {
+            reportBucketCache.put(key(zone, bucket), totals, generation);
+        }
+    }
+
+    // Whole UTC days are answered from the rollup, which has one row per category and day. The daily rows
+    // spanning all such buckets are read at once and folded into the buckets in date order.
+    private void sumFromRollup(List<Bucket> buckets, List<Integer> indexes, List<Map<Long, long[]>> totals) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        List<CategoryDailyTotal> days = categoryDailyTotalRepository.findBucketsBetween(
+                utcDate(buckets.get(indexes.get(0)).queryFrom()),
+                utcDate(buckets.get(indexes.get(indexes.size() - 1)).queryTo()));
+        int day = 0;
+        for (int i : indexes) {
+            LocalDate from = utcDate(buckets.get(i).queryFrom());
+            LocalDate to = utcDate(buckets.get(i).queryTo());
+            while (day < days.size() && days.get(day).getId().getBucketDate().isBefore(from)) {
+                day++;
+            }
+            Map<Long, long[]> bucketTotals = new HashMap<>();
+            for (; day < days.size() && days.get(day).getId().getBucketDate().isBefore(to); day++) {
+                CategoryDailyTotal row = days.get(day);
+                long[] sum = bucketTotals.computeIfAbsent(row.getId().getCategoryId(), id -> new long[2]);
+                sum[0] = MoneyCents.add(sum[0], MoneyCents.fromAmount(row.getTotalAmount()));
+                sum[1] += row.getTransactionCount();
+            }
+            totals.set(i, Map.copyOf(bucketTotals));
+        }
+    }
+
+    private static Map<Long, long[]> toTotals(List<CategoryPeriodTotalDto> rows) {
+        Map<Long, long[]> totals = new HashMap<>();
+        for (CategoryPeriodTotalDto row : rows) {
+            totals.put(row.getCategoryId(), new long[]{MoneyCents.fromAmount(row.getTotal()), row.getTransactionCount()});
+        }
+        return Map.copyOf(totals);
+    }
+
+    private static LocalDate utcDate(Instant time) {
+        return LocalDate.ofInstant(time, ZoneOffset.UTC);
+    }
+
+    private static boolean isUtcMidnight(Instant time) {
+        return time.getEpochSecond() % 86_400 == 0 && time.getNano() == 0;
+    }
+
+    private TimeSeriesBucketDto toDto(Bucket bucket, Map<Long, long[]> totals, Map<Long, CategoryDto> categories,
+                                      boolean byCategory) {
+        long income = 0L;
+        long expense = 0L;
+        List<CategoryTotalDto> split = byCategory ? new ArrayList<>() : null;
+        for (Map.Entry<Long, long[]> entry : totals.entrySet()) {
+            CategoryDto category = categories.get(entry.getKey());
+            CategoryType type = category == null ? null : category.getType();
+            long cents = entry.getValue()[0];
+            if (type == CategoryType.INCOME) {
+                income = MoneyCents.add(income, cents);
+            } else if (type == CategoryType.EXPENSE) {
+                expense = MoneyCents.add(expense, cents);
+            }
+            if (split != null) {
+                split.add(new CategoryTotalDto(entry.getKey(), category == null ? null : category.getName(), type,
+                        MoneyCents.toAmount(cents), entry.getValue()[1]));
+            }
+        }
+        if (split != null) {
+            split.sort(Comparator.comparing(CategoryTotalDto::getTotal).reversed());
+        }
+        return new TimeSeriesBucketDto(bucket.start(), bucket.end(), MoneyCents.toAmount(income),
+                MoneyCents.toAmount(expense), MoneyCents.toAmount(Math.subtractExact(income, expense)), split);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+
+import java.math.BigDecimal;
+
+/**
+ * Range of {@code transactions.amount}, a non-negative {@code DECIMAL(10,2)}. Every write path checks it up front,
+ * so the rollup and analytics folds, which take amounts as exact {@link MoneyCents}, never see a value the
+ * column would not hold.
+ */
+final class TransactionAmounts {
+
+    static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+
+    private TransactionAmounts() {
+    }
+
+    static boolean inRange(BigDecimal amount) {
+        return amount.signum() >= 0 && amount.compareTo(MAX_AMOUNT) <= 0 && amount.stripTrailingZeros().scale() <= 2;
+    }
+
+    // A missing amount is stored as NULL and counts as zero, as before
+    static void requireInRange(BigDecimal amount) {
+        if (amount != null && !inRange(amount)) {
+            throw new BusinessLogicException("Amount out of range: " + amount);
+        }
+    }
+}
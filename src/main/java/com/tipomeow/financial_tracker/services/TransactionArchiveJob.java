@@ -0,0 +1,20 @@
+package com.tipomeow.financial_tracker.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Scheduled archive runs, enabled with financial-tracker.archive.enabled=true. A run can take minutes, so the
+// scheduler pool (spring.task.scheduling.pool.size) keeps a thread for it besides the outbox relay's
+@Component
+@ConditionalOnProperty(name = "financial-tracker.archive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TransactionArchiveJob {
+    private final TransactionArchiveService transactionArchiveService;
+
+    @Scheduled(cron = "${financial-tracker.archive.cron:0 30 3 * * *}")
+    public void run() {
+        transactionArchiveService.archive();
+    }
+}
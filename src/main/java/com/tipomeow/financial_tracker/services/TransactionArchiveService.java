@@ -0,0 +1,15 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.ArchiveRunDto;
+import com.tipomeow.financial_tracker.entity.Transaction;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+public interface TransactionArchiveService {
+    // Moves transactions older than the horizon, one commit per chunk
+    ArchiveRunDto archive();
+    // Moves archived rows back into the hot table in the caller's transaction, before they are written
+    int restore(Collection<Long> ids);
+    long restoreMatching(Specification<Transaction> specification);
+}
@@ -0,0 +1,170 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.ArchiveRunDto;
+import com.tipomeow.financial_tracker.entity.Transaction;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import com.tipomeow.financial_tracker.repository.ArchiveBoundary;
+import com.tipomeow.financial_tracker.repository.ArchivedTransactionRepository;
+import com.tipomeow.financial_tracker.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves transactions older than {@code financial-tracker.archive.horizon} from {@code transactions} to
+ * {@code archived_transactions}, oldest first, {@code chunk-size} rows per commit. A chunk locks only its own
+ * rows, so writers elsewhere in the ledger never wait on a run. Rows keep their ids, and the daily rollup and
+ * balance checkpoints already count them, so the move changes no totals and publishes no change events.
+ * <p>
+ * Archived rows are read-only where they are: a write to one first restores it to the hot table, and the next
+ * run archives it again if it is still past the horizon.
+ */
+@Slf4j
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+public class TransactionArchiveServiceImpl implements TransactionArchiveService {
+
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final ArchiveBoundary archiveBoundary;
+    private final TransactionTextIndex transactionTextIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archived;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Value("${financial-tracker.archive.horizon:365d}")
+    private Duration horizon;
+
+    @Value("${financial-tracker.archive.chunk-size:5000}")
+    private int chunkSize;
+
+    public TransactionArchiveServiceImpl(TransactionRepository transactionRepository,
+                                         ArchivedTransactionRepository archivedTransactionRepository,
+                                         ArchiveBoundary archiveBoundary,
+                                         TransactionTextIndex transactionTextIndex,
+                                         JdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate,
+                                         MeterRegistry meterRegistry) {
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.archiveBoundary = archiveBoundary;
+        this.transactionTextIndex = transactionTextIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.archived = Counter.builder("financial.tracker.archive.archived")
+                .description("Transactions moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    // Until this runs, listings span both tables
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBoundary() {
+        archiveBoundary.reset(archivedTransactionRepository.findNewestTime());
+    }
+
+    @Override
+    public ArchiveRunDto archive() {
+        if (!runLock.tryLock()) {
+            throw new BusinessLogicException("An archive run is already in progress");
+        }
+        try {
+            long start = System.nanoTime();
+            Instant cutoff = Instant.now().minus(horizon);
+            long moved = 0;
+            Integer chunk;
+            do {
+                chunk = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                moved += chunk;
+                archived.increment(chunk);
+            } while (chunk == chunkSize);
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            if (moved > 0) {
+                log.info("Archived {} transactions older than {} in {} ms", moved, cutoff, elapsedMillis);
+            }
+            return new ArchiveRunDto(moved, cutoff, archiveBoundary.archivedThrough(), elapsedMillis);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private int archiveChunk(Instant cutoff) {
+        List<Long> ids = new ArrayList<>(chunkSize);
+        Instant[] newest = new Instant[1];
+        jdbcTemplate.query("SELECT id, time FROM transactions WHERE time < ? ORDER BY time, id " +
+                        "FETCH FIRST ? ROWS ONLY FOR UPDATE",
+                (RowCallbackHandler) rs -> {
+                    ids.add(rs.getLong("id"));
+                    newest[0] = rs.getObject("time", OffsetDateTime.class).toInstant();
+                }, cutoff.atOffset(ZoneOffset.UTC), chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Raised before the rows leave the hot table, so a reader that misses them there looks in the archive
+        archiveBoundary.extendTo(newest[0]);
+        archivedTransactionRepository.copyFromHot(ids);
+        transactionRepository.deleteByIds(ids);
+        return ids.size();
+    }
+
+    @Override
+    @Transactional
+    public int restore(Collection<Long> ids) {
+        if (ids.isEmpty() || archiveBoundary.isEmpty()) {
+            return 0;
+        }
+        List<Long> restoredIds = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+        new NamedParameterJdbcTemplate(jdbcTemplate).query(
+                "SELECT id, description FROM archived_transactions WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids),
+                (RowCallbackHandler) rs -> {
+                    restoredIds.add(rs.getLong("id"));
+                    descriptions.add(rs.getString("description"));
+                });
+        if (restoredIds.isEmpty()) {
+            return 0;
+        }
+        archivedTransactionRepository.copyToHot(restoredIds);
+        archivedTransactionRepository.deleteByIds(restoredIds);
+        transactionTextIndex.indexAll(restoredIds, descriptions);
+        return restoredIds.size();
+    }
+
+    @Override
+    @Transactional
+    public long restoreMatching(Specification<Transaction> specification) {
+        long restored = 0;
+        long afterId = 0;
+        List<Long> chunk;
+        do {
+            chunk = transactionRepository.findArchivedIds(specification, afterId, chunkSize);
+            if (!chunk.isEmpty()) {
+                restored += restore(chunk);
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == chunkSize);
+        return restored;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a transaction page, ordered by (time DESC, id DESC).
+ * Clients only ever see the opaque string produced by {@link #encode()}.
+ */
+public record TransactionCursor(Instant time, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = time.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new BusinessLogicException("Invalid page cursor: " + cursor);
+            }
+            Instant time = Instant.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new TransactionCursor(time, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessLogicException("Invalid page cursor: " + cursor);
+        }
+    }
+}
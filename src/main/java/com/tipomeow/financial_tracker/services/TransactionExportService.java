@@ -0,0 +1,9 @@
+package com.tipomeow.financial_tracker.services;
+
+import java.io.OutputStream;
+import java.time.Instant;
+
+public interface TransactionExportService {
+    void exportCsv(Instant from, Instant to, Long categoryId, OutputStream out);
+    void exportNdjson(Instant from, Instant to, Long categoryId, OutputStream out);
+}
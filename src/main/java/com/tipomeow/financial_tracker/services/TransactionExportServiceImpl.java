@@ -0,0 +1,164 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.repository.ArchiveBoundary;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams transactions straight from a forward-only JDBC cursor to the response, one row at a time,
+ * so memory use does not depend on the size of the ledger.
+ */
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+@RequiredArgsConstructor
+public class TransactionExportServiceImpl implements TransactionExportService {
+    private static final String CSV_HEADER = "id,time,categoryId,categoryName,categoryType,description,amount";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ArchiveBoundary archiveBoundary;
+
+    @Value("${financial-tracker.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public void exportCsv(Instant from, Instant to, Long categoryId, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        write(writer, CSV_HEADER);
+        stream(from, to, categoryId, transaction -> write(writer, toCsvLine(transaction)));
+        flush(writer);
+    }
+
+    @Override
+    public void exportNdjson(Instant from, Instant to, Long categoryId, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        stream(from, to, categoryId, transaction -> {
+            try {
+                write(writer, objectMapper.writeValueAsString(transaction));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        flush(writer);
+    }
+
+    private interface RowConsumer {
+        void accept(TransactionDto transaction);
+    }
+
+    // Archived rows are added only when the range can reach them, with the filters inside each branch of the union
+    private void stream(Instant from, Instant to, Long categoryId, RowConsumer consumer) {
+        StringBuilder conditions = new StringBuilder(" WHERE 1 = 1");
+        List<Object> conditionParams = new ArrayList<>();
+        if (from != null) {
+            conditions.append(" AND t.time >= ?");
+            conditionParams.add(from.atOffset(ZoneOffset.UTC));
+        }
+        if (to != null) {
+            conditions.append(" AND t.time < ?");
+            conditionParams.add(to.atOffset(ZoneOffset.UTC));
+        }
+        if (categoryId != null) {
+            conditions.append(" AND t.category_id = ?");
+            conditionParams.add(categoryId);
+        }
+        String select = "SELECT t.id, t.time, t.amount, t.description, c.id AS category_id, " +
+                "c.name AS category_name, c.type AS category_type FROM ";
+        String sql;
+        List<Object> params = new ArrayList<>(conditionParams);
+        if (archiveBoundary.mayHoldRowsFrom(from)) {
+            String columns = "SELECT t.id, t.category_id, t.description, t.amount, t.time";
+            sql = select + "(" + columns + " FROM transactions t" + conditions +
+                    " UNION ALL " + columns + " FROM archived_transactions t" + conditions + ") t " +
+                    "JOIN categories c ON c.id = t.category_id ORDER BY t.time, t.id";
+            params.addAll(conditionParams);
+        } else {
+            sql = select + "transactions t JOIN categories c ON c.id = t.category_id" + conditions +
+                    " ORDER BY t.time, t.id";
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(toDto(rs)));
+    }
+
+    private TransactionDto toDto(ResultSet rs) throws SQLException {
+        TransactionDto transaction = new TransactionDto();
+        transaction.setId(rs.getLong("id"));
+        transaction.setTime(rs.getObject("time", OffsetDateTime.class).toInstant());
+        transaction.setAmount(rs.getBigDecimal("amount"));
+        transaction.setDescription(rs.getString("description"));
+        transaction.setCategoryId(rs.getLong("category_id"));
+        transaction.setCategoryName(rs.getString("category_name"));
+        String type = rs.getString("category_type");
+        transaction.setCategoryType(type == null ? null : CategoryType.valueOf(type));
+        return transaction;
+    }
+
+    private String toCsvLine(TransactionDto transaction) {
+        return transaction.getId() + "," +
+                transaction.getTime() + "," +
+                transaction.getCategoryId() + "," +
+                csvField(transaction.getCategoryName()) + "," +
+                (transaction.getCategoryType() == null ? "" : transaction.getCategoryType()) + "," +
+                csvField(transaction.getDescription()) + "," +
+                transaction.getAmount().toPlainString();
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void write(Writer writer, String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flush(Writer writer) {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.BulkImportResultDto;
+
+import java.io.InputStream;
+
+public interface TransactionImportService {
+    BulkImportResultDto importJsonArray(InputStream body);
+    BulkImportResultDto importNdjson(InputStream body);
+}
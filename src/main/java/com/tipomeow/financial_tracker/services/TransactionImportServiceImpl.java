@@ -0,0 +1,209 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.tipomeow.financial_tracker.dto.BulkImportErrorDto;
+import com.tipomeow.financial_tracker.dto.BulkImportResultDto;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.entity.ChangeOperation;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk transaction ingest. Rows are validated against one category prefetch, written with JDBC batch
+ * inserts and committed in chunks, so a failing row or chunk is reported without aborting the load.
+ * <p>
+ * Plain JDBC is used because {@code GenerationType.IDENTITY} on {@code Transaction.id} disables Hibernate
+ * insert batching; the generated ids are read back to index descriptions for search and to record one
+ * payload-less {@code CREATED} change event per row, as the batch endpoints do.
+ */
+@Service
+@Timed(value = "financial.tracker.service", histogram = true)
+@RequiredArgsConstructor
+public class TransactionImportServiceImpl implements TransactionImportService {
+    private static final int MAX_DESCRIPTION_LENGTH = 100;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryCache categoryCache;
+    private final LedgerRollupService ledgerRollupService;
+    private final LedgerVersion ledgerVersion;
+    private final TransactionTextIndex transactionTextIndex;
+    private final ChangeOutbox changeOutbox;
+    private final ObjectProvider<AnalyticsSnapshotService> analyticsSnapshot;
+    private final ObjectMapper objectMapper;
+
+    @Value("${financial-tracker.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${financial-tracker.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Override
+    public BulkImportResultDto importJsonArray(InputStream body) {
+        ImportRun run = new ImportRun();
+        // A root-level JSON array is unwrapped by the iterator, so elements are bound one at a time
+        try (MappingIterator<TransactionRequestDto> rows =
+                     objectMapper.readerFor(TransactionRequestDto.class).readValues(body)) {
+            while (rows.hasNextValue()) {
+                run.accept(rows.nextValue());
+            }
+        } catch (IOException | RuntimeJsonMappingException e) {
+            run.abort("Malformed JSON, remaining rows skipped: " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    @Override
+    public BulkImportResultDto importNdjson(InputStream body) {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.accept(objectMapper.readValue(line, TransactionRequestDto.class));
+                } catch (JsonProcessingException e) {
+                    run.reject("Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            run.abort("Could not read request body, remaining rows skipped: " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    private record PendingRow(long row, TransactionRequestDto request) {
+    }
+
+    private class ImportRun {
+        private final long startNanos = System.nanoTime();
+        private final Set<Long> categoryIds = categoryCache.findAll().stream()
+                .map(CategoryDto::getId)
+                .collect(Collectors.toSet());
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final List<BulkImportErrorDto> errors = new ArrayList<>();
+        private long received;
+        private long inserted;
+        private long failed;
+
+        void accept(TransactionRequestDto request) {
+            received++;
+            String error = validate(request);
+            if (error != null) {
+                recordError(received, error);
+                return;
+            }
+            if (request.getTime() == null) {
+                request.setTime(Instant.now());
+            }
+            pending.add(new PendingRow(received, request));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(String message) {
+            received++;
+            recordError(received, message);
+        }
+
+        void abort(String message) {
+            addError(received + 1, message);
+        }
+
+        // The snapshot is reloaded once for the whole run, not once per chunk
+        BulkImportResultDto finish() {
+            flush();
+            if (inserted > 0) {
+                analyticsSnapshot.ifAvailable(AnalyticsSnapshotService::reloadAfterCommit);
+            }
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            double rowsPerSecond = elapsedMillis == 0 ? inserted : inserted * 1000.0 / elapsedMillis;
+            return new BulkImportResultDto(received, inserted, failed, elapsedMillis, rowsPerSecond, errors);
+        }
+
+        private String validate(TransactionRequestDto request) {
+            if (request == null) {
+                return "Row is empty";
+            }
+            if (request.getCategoryId() == null) {
+                return "Category id cannot be null";
+            }
+            if (!categoryIds.contains(request.getCategoryId())) {
+                return "Category not found with id: " + request.getCategoryId();
+            }
+            BigDecimal amount = request.getAmount();
+            if (amount == null) {
+                return "Amount cannot be null";
+            }
+            if (!TransactionAmounts.inRange(amount)) {
+                return "Amount out of range: " + amount;
+            }
+            if (request.getDescription() != null && request.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+                return "Description longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+            }
+            return null;
+        }
+
+        // Each chunk commits on its own; a database error rolls back and reports only that chunk
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<TransactionRequestDto> requests = pending.stream().map(PendingRow::request).toList();
+                    List<Long> ids = TransactionInserts.insert(jdbcTemplate, requests, batchSize);
+                    ledgerRollupService.recordImported(requests);
+                    transactionTextIndex.indexAll(ids,
+                            requests.stream().map(TransactionRequestDto::getDescription).toList());
+                    changeOutbox.appendTransactions(ids, ChangeOperation.CREATED);
+                    ledgerVersion.transactionsChangedAfterCommit();
+                });
+                inserted += pending.size();
+            } catch (DataAccessException e) {
+                String message = "Chunk rolled back: " + e.getMostSpecificCause().getMessage();
+                for (PendingRow row : pending) {
+                    recordError(row.row(), message);
+                }
+            }
+            pending.clear();
+        }
+
+        private void recordError(long row, String message) {
+            failed++;
+            addError(row, message);
+        }
+
+        private void addError(long row, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkImportErrorDto(row, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch insert of transactions that returns the generated ids in request order. Used where
+ * {@code GenerationType.IDENTITY} on {@code Transaction.id} would turn Hibernate inserts into one statement each.
+ */
+final class TransactionInserts {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (category_id, description, amount, time) VALUES (?, ?, ?, ?)";
+
+    private TransactionInserts() {
+    }
+
+    // Requests must have a category id and a time; runs in the caller's transaction
+    static List<Long> insert(JdbcTemplate jdbcTemplate, List<TransactionRequestDto> requests, int batchSize) {
+        List<Long> ids = jdbcTemplate.execute(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                (PreparedStatement statement) -> {
+                    List<Long> keys = new ArrayList<>(requests.size());
+                    for (int from = 0; from < requests.size(); from += batchSize) {
+                        for (TransactionRequestDto request : requests.subList(from, Math.min(requests.size(), from + batchSize))) {
+                            statement.setLong(1, request.getCategoryId());
+                            statement.setString(2, request.getDescription());
+                            statement.setBigDecimal(3, request.getAmount());
+                            statement.setObject(4, request.getTime().atOffset(ZoneOffset.UTC));
+                            statement.addBatch();
+                        }
+                        statement.executeBatch();
+                        try (ResultSet generated = statement.getGeneratedKeys()) {
+                            while (generated.next()) {
+                                keys.add(generated.getLong(1));
+                            }
+                        }
+                    }
+                    return keys;
+                });
+        // Without one key per row the caller cannot match rows to ids, so the transaction has to roll back
+        if (ids == null || ids.size() != requests.size()) {
+            throw new DataRetrievalFailureException("Expected " + requests.size() + " generated ids, got "
+                    + (ids == null ? 0 : ids.size()));
+        }
+        return ids;
+    }
+}
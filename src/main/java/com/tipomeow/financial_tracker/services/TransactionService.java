@@ -1,8 +1,12 @@
 package com.tipomeow.financial_tracker.services;
 
+import com.tipomeow.financial_tracker.dto.BatchResultDto;
+import com.tipomeow.financial_tracker.dto.BatchUpdateRequestDto;
 import com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto;
 import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
 import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
 
 import java.util.List;
 
@@ -14,4 +18,12 @@ public interface TransactionService {
     void deleteTransaction(Long id);
     List<CategoryExpenseSummaryDto> getCategoryExpenseSummary();
     List<TransactionDto> getTransactionsByCategory(Long categoryId);
+    TransactionPageDto getTransactionsPage(String cursor, int size);
+    TransactionPageDto getTransactionsByCategoryPage(Long categoryId, String cursor, int size);
+    TransactionPageDto searchTransactions(TransactionSearchRequestDto criteria, String cursor, int size);
+    TransactionPageDto searchText(String query, TransactionSearchRequestDto criteria, String cursor, int size);
+    BatchResultDto moveCategory(Long fromCategoryId, Long toCategoryId);
+    BatchResultDto updateTransactions(BatchUpdateRequestDto request);
+    BatchResultDto deleteTransactions(List<Long> ids);
+    BatchResultDto deleteMatching(TransactionSearchRequestDto criteria);
     }
\ No newline at end of file
@@ -1,55 +1,100 @@
 package com.tipomeow.financial_tracker.services;
 
+import com.tipomeow.financial_tracker.dto.BatchResultDto;
+import com.tipomeow.financial_tracker.dto.BatchUpdateRequestDto;
 import com.tipomeow.financial_tracker.dto.CategoryExpenseSummaryDto;
 import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
 import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
 import com.tipomeow.financial_tracker.entity.Category;
+import com.tipomeow.financial_tracker.entity.ChangeAggregateType;
+import com.tipomeow.financial_tracker.entity.ChangeOperation;
 import com.tipomeow.financial_tracker.entity.CategoryType;
 import com.tipomeow.financial_tracker.entity.Transaction;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
 import com.tipomeow.financial_tracker.exception.ResourceNotFoundException;
 import com.tipomeow.financial_tracker.mapper.TransactionMapper;
-import com.tipomeow.financial_tracker.repository.CategoryRepository;
 import com.tipomeow.financial_tracker.repository.TransactionRepository;
+import com.tipomeow.financial_tracker.repository.TransactionSearchRepository.TextSearchHit;
+import com.tipomeow.financial_tracker.repository.TransactionSpecifications;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "financial.tracker.service", histogram = true)
 @Transactional
 @RequiredArgsConstructor
 public class TransactionServiceImpl implements TransactionService{
-    private final CategoryRepository categoryRepository;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_DESCRIPTION_LENGTH = 100;
+    private static final int MAX_SEARCH_TERMS = 5;
+
     private final TransactionRepository transactionRepository;
     private final TransactionMapper transactionMapper;
+    private final CategoryCache categoryCache;
+    private final LedgerRollupService ledgerRollupService;
+    private final LedgerVersion ledgerVersion;
+    private final ObjectProvider<AnalyticsSnapshotService> analyticsSnapshot;
+    private final ChangeOutbox changeOutbox;
+    private final TransactionTextIndex transactionTextIndex;
+    private final TransactionArchiveService transactionArchiveService;
+
+    @Value("${financial-tracker.batch.chunk-size:1000}")
+    private int batchChunkSize;
 
     @Override
     public TransactionDto createTransaction(TransactionRequestDto request) {
         if (request.getCategoryId()==null){
             throw new ResourceNotFoundException("Category id cannot be null");
         }
-        Optional<Category> optionalCategory = categoryRepository.findById(request.getCategoryId());
+        Optional<Category> optionalCategory = categoryCache.findById(request.getCategoryId());
         Category category = optionalCategory.orElseThrow(() -> {
             throw new ResourceNotFoundException("Category not found with id: " + request.getCategoryId());
         });
+        TransactionAmounts.requireInRange(request.getAmount());
         Transaction transaction = transactionMapper.toEntity(request);
         transaction.setCategory(category);
         if(request.getTime()==null){
             transaction.setTime(Instant.now());
         }
         Transaction saved = transactionRepository.save(transaction);
-        return transactionMapper.toDto(saved);
+        transactionTextIndex.index(saved.getId(), saved.getDescription());
+        ledgerRollupService.recordCreated(category.getId(), saved.getTime(), saved.getAmount());
+        ledgerVersion.transactionsChangedAfterCommit();
+        analyticsSnapshot.ifAvailable(snapshot -> snapshot.recordSavedAfterCommit(
+                saved.getId(), category.getId(), saved.getTime(), saved.getAmount()));
+        TransactionDto dto = transactionMapper.toDto(saved);
+        changeOutbox.append(ChangeAggregateType.TRANSACTION, saved.getId(), ChangeOperation.CREATED, dto);
+        return dto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<TransactionDto> getAllTransactions() {
-        List<Transaction> transactions = transactionRepository.findAllByOrderByTimeDesc();
+        List<Transaction> transactions = transactionRepository.withArchived(
+                transactionRepository.findAllByOrderByTimeDesc(), Specification.allOf(), Integer.MAX_VALUE);
         return transactionMapper.toDtoList(transactions);
     }
 
@@ -57,6 +102,7 @@ public class TransactionServiceImpl implements TransactionService{
     @Transactional(readOnly = true)
     public TransactionDto getTransactionById(Long id) {
         return transactionRepository.findById(id)
+                .or(() -> transactionRepository.findArchivedById(id))
                 .map(transactionMapper::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Transaction not found with id: " + id
@@ -65,65 +111,362 @@ public class TransactionServiceImpl implements TransactionService{
 
     @Override
     public TransactionDto updateTransaction(Long id, TransactionRequestDto request) {
-        Transaction existingTransaction = transactionRepository.findById(id).orElseThrow(
+        TransactionAmounts.requireInRange(request.getAmount());
+        Transaction existingTransaction = findForWrite(id).orElseThrow(
                 () -> new ResourceNotFoundException(
                 "Transaction not found with id: " + id
         ));
+        Long oldCategoryId = existingTransaction.getCategory().getId();
+        Instant oldTime = existingTransaction.getTime();
+        BigDecimal oldAmount = existingTransaction.getAmount();
+        String oldDescription = existingTransaction.getDescription();
         Transaction updated = existingTransaction;
         updated.setDescription(request.getDescription());
         updated.setAmount(request.getAmount());
         updated.setTime(request.getTime());
-        if (existingTransaction.getCategory().getId() != request.getCategoryId()){
-            Category newCategory = categoryRepository.findById(request.getCategoryId()).orElseThrow(
+        if (!Objects.equals(existingTransaction.getCategory().getId(), request.getCategoryId())){
+            Category newCategory = categoryCache.findById(request.getCategoryId()).orElseThrow(
                     () -> new ResourceNotFoundException(
-                            "Category not found with id: " + id
+                            "Category not found with id: " + request.getCategoryId()
                     ));
             updated.setCategory(newCategory);
         }
         transactionRepository.save(updated);
-        return transactionMapper.toDto(updated);
+        if (!Objects.equals(oldDescription, updated.getDescription())) {
+            transactionTextIndex.reindex(id, updated.getDescription());
+        }
+        ledgerRollupService.recordUpdated(oldCategoryId, oldTime, oldAmount,
+                updated.getCategory().getId(), updated.getTime(), updated.getAmount());
+        ledgerVersion.transactionsChangedAfterCommit();
+        analyticsSnapshot.ifAvailable(snapshot -> snapshot.recordSavedAfterCommit(
+                updated.getId(), updated.getCategory().getId(), updated.getTime(), updated.getAmount()));
+        TransactionDto dto = transactionMapper.toDto(updated);
+        changeOutbox.append(ChangeAggregateType.TRANSACTION, id, ChangeOperation.UPDATED, dto);
+        return dto;
     }
 
     @Override
     public void deleteTransaction(Long id) {
-        if(!transactionRepository.existsById(id)){
-            throw new ResourceNotFoundException("Transaction not found with id: " + id);
-        }
-        transactionRepository.deleteById(id);
+        Transaction existingTransaction = findForWrite(id).orElseThrow(
+                () -> new ResourceNotFoundException("Transaction not found with id: " + id));
+        transactionRepository.delete(existingTransaction);
+        ledgerRollupService.recordDeleted(existingTransaction.getCategory().getId(),
+                existingTransaction.getTime(), existingTransaction.getAmount());
+        ledgerVersion.transactionsChangedAfterCommit();
+        analyticsSnapshot.ifAvailable(snapshot -> snapshot.recordDeletedAfterCommit(id));
+        changeOutbox.append(ChangeAggregateType.TRANSACTION, id, ChangeOperation.DELETED, null);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CategoryExpenseSummaryDto> getCategoryExpenseSummary() {
-        List<Category> categoryList = categoryRepository.findByType(CategoryType.EXPENSE);
-        List<CategoryExpenseSummaryDto> summaries = categoryList.stream()
-                .map(category -> {
-                    List<Transaction> transactions = transactionRepository.findByCategory(category);
+        return ledgerRollupService.getCategoryTotals(CategoryType.EXPENSE);
+    }
 
-                    BigDecimal totalExpenses = transactions.stream()
-                            .map(Transaction::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionDto> getTransactionsByCategory(Long categoryId) {
+        List<Transaction> transactions = transactionRepository.withArchived(
+                transactionRepository.findByCategoryId(categoryId),
+                TransactionSpecifications.categoryIdIn(List.of(categoryId)), Integer.MAX_VALUE);
+        if (transactions.isEmpty()) {
+            requireCategoryExists(categoryId);
+        }
+        return transactionMapper.toDtoList(transactions);
+    }
 
-                    return new CategoryExpenseSummaryDto(
-                            category.getId(),
-                            category.getName(),
-                            totalExpenses
-                    );
-                })
-                .sorted(Comparator.comparing(CategoryExpenseSummaryDto::getTotalExpenses).reversed())
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPageDto getTransactionsPage(String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Transaction> transactions;
+        Specification<Transaction> specification;
+        if (cursor == null || cursor.isBlank()) {
+            transactions = transactionRepository.findAllByOrderByTimeDescIdDesc(pageable);
+            specification = Specification.allOf();
+        } else {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findPageAfter(after.time(), after.id(), pageable);
+            specification = TransactionSpecifications.before(after.time(), after.id());
+        }
+        transactions = transactionRepository.withArchived(transactions, specification, pageSize + 1);
+        return toPage(transactions, pageSize);
+    }
 
-        return summaries;
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPageDto getTransactionsByCategoryPage(Long categoryId, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Transaction> transactions;
+        Specification<Transaction> specification = TransactionSpecifications.categoryIdIn(List.of(categoryId));
+        if (cursor == null || cursor.isBlank()) {
+            transactions = transactionRepository.findByCategoryIdOrderByTimeDescIdDesc(categoryId, pageable);
+        } else {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findCategoryPageAfter(categoryId, after.time(), after.id(), pageable);
+            specification = specification.and(TransactionSpecifications.before(after.time(), after.id()));
+        }
+        transactions = transactionRepository.withArchived(transactions, specification, pageSize + 1);
+        if (transactions.isEmpty()) {
+            requireCategoryExists(categoryId);
+        }
+        return toPage(transactions, pageSize);
     }
 
     @Override
-    public List<TransactionDto> getTransactionsByCategory(Long categoryId) {
-        Category category = categoryRepository.findById(categoryId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Category not found with id: " + categoryId));
+    @Transactional(readOnly = true)
+    public TransactionPageDto searchTransactions(TransactionSearchRequestDto criteria, String cursor, int size) {
+        int pageSize = clampPageSize(size);
+        List<Specification<Transaction>> filters = filtersOf(criteria);
+        if (filters == null) {
+            return new TransactionPageDto(List.of(), null);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            filters.add(TransactionSpecifications.before(after.time(), after.id()));
+        }
+        List<Transaction> transactions = transactionRepository.search(Specification.allOf(filters), pageSize + 1);
+        return toPage(transactions, pageSize);
+    }
+
+    // Ranked by the token index, then newest first; the page's rows are loaded by id in one select, and from
+    // the archive for the ids not in the hot table. A range that can reach the archive scans its descriptions.
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPageDto searchText(String query, TransactionSearchRequestDto criteria, String cursor, int size) {
+        List<String> terms = TransactionTextIndex.tokensOf(query);
+        if (terms.isEmpty()) {
+            throw new BusinessLogicException("Search needs at least one word of "
+                    + TransactionTextIndex.MIN_TOKEN_LENGTH + " or more letters or digits");
+        }
+        if (terms.size() > MAX_SEARCH_TERMS) {
+            throw new BusinessLogicException("Search is limited to " + MAX_SEARCH_TERMS + " words");
+        }
+        int pageSize = clampPageSize(size);
+        Collection<Long> categoryIds = resolveCategoryIds(criteria);
+        if (categoryIds != null && categoryIds.isEmpty()) {
+            return new TransactionPageDto(List.of(), null);
+        }
+        TextSearchHit after = cursor == null || cursor.isBlank() ? null : TextSearchCursor.decode(cursor).hit();
+        List<TextSearchHit> hits = transactionTextIndex.searching(() -> transactionRepository.searchText(terms,
+                criteria, categoryIds, after, pageSize + 1));
+        List<TextSearchHit> page = hits.size() > pageSize ? hits.subList(0, pageSize) : hits;
+        Map<Long, Transaction> byId = transactionRepository.findByIdIn(page.stream().map(TextSearchHit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+        if (byId.size() < page.size()) {
+            List<Long> missing = page.stream().map(TextSearchHit::id).filter(id -> !byId.containsKey(id)).toList();
+            transactionRepository.findArchivedByIdIn(missing).forEach(archived -> byId.put(archived.getId(), archived));
+        }
+        // A row deleted since the ranking is skipped, the cursor continues after the last row still present
+        List<Transaction> transactions = new ArrayList<>(page.size());
+        TextSearchCursor last = null;
+        for (TextSearchHit hit : page) {
+            Transaction transaction = byId.get(hit.id());
+            if (transaction != null) {
+                transactions.add(transaction);
+                last = new TextSearchCursor(hit.score(), transaction.getTime(), hit.id());
+            }
+        }
+        String nextCursor = hits.size() > pageSize && last != null ? last.encode() : null;
+        return new TransactionPageDto(transactionMapper.toDtoList(transactions), nextCursor);
+    }
 
-        List<Transaction> transactions = transactionRepository.findByCategory(category);
+    // Batch writes run in one transaction as set-based statements over chunks of ids. Archived rows among them
+    // are restored first. Each chunk then records its outbox events and rollup changes from the rows themselves,
+    // then updates or deletes them.
+    @Override
+    public BatchResultDto moveCategory(Long fromCategoryId, Long toCategoryId) {
+        long start = System.nanoTime();
+        if (fromCategoryId == null || toCategoryId == null) {
+            throw new ResourceNotFoundException("Category id cannot be null");
+        }
+        if (fromCategoryId.equals(toCategoryId)) {
+            throw new BusinessLogicException("Source and target category must be different");
+        }
+        requireCategoryExists(fromCategoryId);
+        requireCategoryExists(toCategoryId);
+        transactionArchiveService.restoreMatching(TransactionSpecifications.categoryIdIn(List.of(fromCategoryId)));
+        changeOutbox.appendCategoryTransactions(fromCategoryId, ChangeOperation.UPDATED);
+        ledgerRollupService.recordCategoryMoved(fromCategoryId, toCategoryId);
+        int moved = transactionRepository.moveCategory(fromCategoryId, toCategoryId);
+        batchChangedAfterCommit();
+        return new BatchResultDto(moved, elapsedMillis(start));
+    }
 
-        return transactionMapper.toDtoList(transactions);
+    @Override
+    public BatchResultDto updateTransactions(BatchUpdateRequestDto request) {
+        long start = System.nanoTime();
+        Long categoryId = request.getCategoryId();
+        String description = request.getDescription();
+        if (categoryId == null && description == null) {
+            throw new BusinessLogicException("Nothing to update, set categoryId or description");
+        }
+        if (categoryId != null) {
+            requireCategoryExists(categoryId);
+        }
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new BusinessLogicException("Description longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        long updated = 0;
+        for (List<Long> chunk : chunksOf(request.getIds())) {
+            transactionArchiveService.restore(chunk);
+            if (categoryId != null) {
+                ledgerRollupService.recordBulkRemoved(chunk);
+            }
+            updated += transactionRepository.updateCategoryAndDescription(chunk, categoryId, description);
+            if (description != null) {
+                transactionTextIndex.reindexAll(chunk, description);
+            }
+            if (categoryId != null) {
+                ledgerRollupService.recordBulkAdded(chunk);
+            }
+            changeOutbox.appendTransactions(chunk, ChangeOperation.UPDATED);
+        }
+        batchChangedAfterCommit();
+        return new BatchResultDto(updated, elapsedMillis(start));
+    }
+
+    @Override
+    public BatchResultDto deleteTransactions(List<Long> ids) {
+        long start = System.nanoTime();
+        long deleted = 0;
+        for (List<Long> chunk : chunksOf(ids)) {
+            transactionArchiveService.restore(chunk);
+            deleted += deleteChunk(chunk);
+        }
+        batchChangedAfterCommit();
+        return new BatchResultDto(deleted, elapsedMillis(start));
+    }
+
+    @Override
+    public BatchResultDto deleteMatching(TransactionSearchRequestDto criteria) {
+        long start = System.nanoTime();
+        List<Specification<Transaction>> filters = filtersOf(criteria);
+        if (filters == null) {
+            return new BatchResultDto(0, elapsedMillis(start));
+        }
+        if (filters.isEmpty()) {
+            throw new BusinessLogicException("At least one filter is required");
+        }
+        Specification<Transaction> specification = Specification.allOf(filters);
+        transactionArchiveService.restoreMatching(specification);
+        long deleted = 0;
+        List<Long> chunk;
+        long afterId = 0;
+        do {
+            chunk = transactionRepository.findIds(specification, afterId, batchChunkSize);
+            if (!chunk.isEmpty()) {
+                deleted += deleteChunk(chunk);
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == batchChunkSize);
+        batchChangedAfterCommit();
+        return new BatchResultDto(deleted, elapsedMillis(start));
+    }
+
+    // An archived row is restored before it is written, so the write paths only ever change hot rows
+    private Optional<Transaction> findForWrite(Long id) {
+        Optional<Transaction> hot = transactionRepository.findById(id);
+        if (hot.isPresent() || transactionArchiveService.restore(List.of(id)) == 0) {
+            return hot;
+        }
+        return transactionRepository.findById(id);
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        changeOutbox.appendTransactions(ids, ChangeOperation.DELETED);
+        ledgerRollupService.recordBulkRemoved(ids);
+        return transactionRepository.deleteByIds(ids);
+    }
+
+    private List<List<Long>> chunksOf(List<Long> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += batchChunkSize) {
+            chunks.add(distinct.subList(from, Math.min(distinct.size(), from + batchChunkSize)));
+        }
+        return chunks;
+    }
+
+    private void batchChangedAfterCommit() {
+        ledgerVersion.transactionsChangedAfterCommit();
+        analyticsSnapshot.ifAvailable(AnalyticsSnapshotService::reloadAfterCommit);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Returns null when the criteria cannot match anything (a type with no categories)
+    private List<Specification<Transaction>> filtersOf(TransactionSearchRequestDto criteria) {
+        List<Specification<Transaction>> filters = new ArrayList<>();
+        if (criteria.getFrom() != null) {
+            filters.add(TransactionSpecifications.timeFrom(criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            filters.add(TransactionSpecifications.timeBefore(criteria.getTo()));
+        }
+        Collection<Long> categoryIds = resolveCategoryIds(criteria);
+        if (categoryIds != null) {
+            if (categoryIds.isEmpty()) {
+                return null;
+            }
+            filters.add(TransactionSpecifications.categoryIdIn(categoryIds));
+        }
+        if (criteria.getMinAmount() != null) {
+            filters.add(TransactionSpecifications.amountAtLeast(criteria.getMinAmount()));
+        }
+        if (criteria.getMaxAmount() != null) {
+            filters.add(TransactionSpecifications.amountAtMost(criteria.getMaxAmount()));
+        }
+        if (criteria.getDescription() != null && !criteria.getDescription().isBlank()) {
+            filters.add(TransactionSpecifications.descriptionStartsWith(criteria.getDescription()));
+        }
+        return filters;
+    }
+
+    // A type filter is turned into category ids from the cache, so it becomes an indexed category_id IN (...)
+    private Collection<Long> resolveCategoryIds(TransactionSearchRequestDto criteria) {
+        List<Long> requested = criteria.getCategoryIds();
+        if (criteria.getType() == null) {
+            return requested == null || requested.isEmpty() ? null : requested;
+        }
+        Set<Long> ofType = categoryCache.findAll().stream()
+                .filter(category -> category.getType() == criteria.getType())
+                .map(CategoryDto::getId)
+                .collect(Collectors.toCollection(HashSet::new));
+        if (requested != null && !requested.isEmpty()) {
+            ofType.retainAll(requested);
+        }
+        return ofType;
+    }
+
+    // Only consulted when a category listing comes back empty, so non-empty listings stay a single select
+    private void requireCategoryExists(Long categoryId) {
+        if (categoryCache.findById(categoryId).isEmpty()) {
+            throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+        }
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // One extra row is fetched to know whether another page exists without a count query
+    private TransactionPageDto toPage(List<Transaction> transactions, int pageSize) {
+        if (transactions.size() <= pageSize) {
+            return new TransactionPageDto(transactionMapper.toDtoList(transactions), null);
+        }
+        List<Transaction> page = transactions.subList(0, pageSize);
+        Transaction last = page.get(pageSize - 1);
+        String nextCursor = new TransactionCursor(last.getTime(), last.getId()).encode();
+        return new TransactionPageDto(transactionMapper.toDtoList(page), nextCursor);
     }
 
 }
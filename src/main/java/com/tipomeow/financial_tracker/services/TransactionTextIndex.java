@@ -0,0 +1,313 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.SearchIndexRebuildDto;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index of description words in {@code transaction_tokens}, one row per distinct word and transaction.
+ * Words are runs of letters and digits, lower-cased, at least {@value #MIN_TOKEN_LENGTH} and at most
+ * {@value #MAX_TOKEN_LENGTH} characters (longer ones are cut).
+ * <p>
+ * Writes index in the caller's transaction; the foreign key removes a transaction's words when it is deleted.
+ * Rows inserted around the services (data.sql, console edits) are picked up by {@link #rebuild()}. On startup
+ * it runs when the newest transaction with words has none indexed, or, with
+ * {@code financial-tracker.search.verify-on-startup=true}, when any transaction does.
+ * <p>
+ * A rebuild fills {@code transaction_tokens_next} while searches keep reading the complete old index, then
+ * renames it into place. Writes during a rebuild go to both tables.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionTextIndex {
+
+    static final int MIN_TOKEN_LENGTH = 2;
+    static final int MAX_TOKEN_LENGTH = 32;
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final String TABLE = "transaction_tokens";
+    private static final String NEXT_TABLE = "transaction_tokens_next";
+    // Idempotent, so a write that lands while a rebuild passes over the same row does not collide with it
+    private static final String INSERT_SQL =
+            "MERGE INTO %s (token, transaction_id) KEY (token, transaction_id) VALUES (?, ?)";
+    private static final String HAS_WORDS_SQL =
+            "REGEXP_LIKE(t.description, '[\\p{L}\\p{N}]{" + MIN_TOKEN_LENGTH + "}')";
+    private static final String MISSING_SQL =
+            "SELECT t.id, t.description FROM transactions t WHERE " + HAS_WORDS_SQL + " " +
+            "AND NOT EXISTS (SELECT 1 FROM %s k WHERE k.transaction_id = t.id)";
+    private static final int REBUILD_CHUNK = 10_000;
+    private static final int SWAP_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Searches and index writes hold the read lock, the rename at the end of a rebuild the write lock
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile boolean rebuilding;
+
+    @Value("${financial-tracker.search.verify-on-startup:false}")
+    private boolean verifyOnStartup;
+
+    public static List<String> tokensOf(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        Matcher matcher = WORD.matcher(text.toLowerCase(Locale.ROOT));
+        while (matcher.find()) {
+            String word = matcher.group();
+            if (word.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(word.length() > MAX_TOKEN_LENGTH ? word.substring(0, MAX_TOKEN_LENGTH) : word);
+            }
+        }
+        return List.copyOf(tokens);
+    }
+
+    // The default check reads one transaction, so a large ledger starts without scanning every description
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfOutOfSync() {
+        if (verifyOnStartup ? !isInSync() : !isNewestIndexed()) {
+            log.info("Description search index is out of sync with transactions, rebuilding");
+            rebuild();
+        }
+    }
+
+    // Runs a query on transaction_tokens, which a rebuild's rename otherwise could pull away mid-statement
+    public <T> T searching(Supplier<T> search) {
+        swapLock.readLock().lock();
+        try {
+            return search.get();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    public void index(Long transactionId, String description) {
+        indexAll(List.of(transactionId), Collections.singletonList(description));
+    }
+
+    // ids and descriptions are parallel lists
+    public void indexAll(List<Long> transactionIds, List<String> descriptions) {
+        List<Object[]> rows = tokenRows(transactionIds, descriptions);
+        if (!rows.isEmpty()) {
+            write(table -> jdbcTemplate.batchUpdate(INSERT_SQL.formatted(table), rows));
+        }
+    }
+
+    public void reindex(Long transactionId, String description) {
+        write(table -> jdbcTemplate.update("DELETE FROM " + table + " WHERE transaction_id = ?", transactionId));
+        index(transactionId, description);
+    }
+
+    // Batch updates set one description on many rows
+    public void reindexAll(Collection<Long> transactionIds, String description) {
+        write(table -> new NamedParameterJdbcTemplate(jdbcTemplate).update(
+                "DELETE FROM " + table + " WHERE transaction_id IN (:ids)",
+                new MapSqlParameterSource("ids", transactionIds)));
+        List<String> tokens = tokensOf(description);
+        List<Object[]> rows = new ArrayList<>(transactionIds.size() * tokens.size());
+        for (Long transactionId : transactionIds) {
+            for (String token : tokens) {
+                rows.add(new Object[]{token, transactionId});
+            }
+        }
+        if (!rows.isEmpty()) {
+            write(table -> jdbcTemplate.batchUpdate(INSERT_SQL.formatted(table), rows));
+        }
+    }
+
+    private void write(Consumer<String> statement) {
+        swapLock.readLock().lock();
+        try {
+            statement.accept(TABLE);
+            if (rebuilding) {
+                statement.accept(NEXT_TABLE);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Keyset over the primary key with one commit per chunk, so a rebuild never holds one huge transaction
+    public SearchIndexRebuildDto rebuild() {
+        if (!rebuildLock.tryLock()) {
+            throw new BusinessLogicException("A search index rebuild is already in progress");
+        }
+        try {
+            long start = System.nanoTime();
+            createNextTable();
+            long transactions;
+            try {
+                transactions = fillNextTable();
+                swapWithRetries();
+            } catch (RuntimeException e) {
+                dropNextTable();
+                throw e;
+            }
+            long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            log.info("Indexed descriptions of {} transactions in {} ms", transactions, elapsedMillis);
+            return new SearchIndexRebuildDto(transactions, elapsedMillis);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Same shape as V3__transaction_tokens.sql; constraint and index take their final names after the swap
+    private void createNextTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + NEXT_TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + NEXT_TABLE + " (" +
+                "token VARCHAR(" + MAX_TOKEN_LENGTH + ") NOT NULL, " +
+                "transaction_id BIGINT NOT NULL, " +
+                "PRIMARY KEY (token, transaction_id), " +
+                "CONSTRAINT fk_transaction_tokens_next_transaction FOREIGN KEY (transaction_id) " +
+                "REFERENCES transactions (id) ON DELETE CASCADE)");
+        jdbcTemplate.execute("CREATE INDEX idx_transaction_token_next_transaction ON " + NEXT_TABLE + " (transaction_id)");
+        rebuilding = true;
+    }
+
+    private long fillNextTable() {
+        long afterId = 0;
+        long transactions = 0;
+        List<Long> ids = new ArrayList<>(REBUILD_CHUNK);
+        List<String> descriptions = new ArrayList<>(REBUILD_CHUNK);
+        do {
+            ids.clear();
+            descriptions.clear();
+            jdbcTemplate.query("SELECT id, description FROM transactions WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                    (RowCallbackHandler) rs -> {
+                        ids.add(rs.getLong("id"));
+                        descriptions.add(rs.getString("description"));
+                    }, afterId, REBUILD_CHUNK);
+            if (!ids.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> insertInto(NEXT_TABLE, ids, descriptions));
+                afterId = ids.get(ids.size() - 1);
+                transactions += ids.size();
+            }
+        } while (ids.size() == REBUILD_CHUNK);
+        return transactions;
+    }
+
+    // The rename waits for writers' open transactions on the old table; one that indexes again meanwhile
+    // waits for the swap lock, so the rename times out and is retried after it has committed
+    private void swapWithRetries() {
+        indexMissedRows();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                swap();
+                return;
+            } catch (DataAccessException e) {
+                if (attempt == SWAP_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Search index swap attempt {} failed, retrying: {}", attempt, e.getMessage());
+            }
+        }
+    }
+
+    // Rows whose writers indexed only the old table, before the rebuild began, but committed after the scan
+    // passed them. Later writes reach both tables.
+    private void indexMissedRows() {
+        List<Long> ids = new ArrayList<>();
+        List<String> descriptions = new ArrayList<>();
+        jdbcTemplate.query(MISSING_SQL.formatted(NEXT_TABLE), (RowCallbackHandler) rs -> {
+            ids.add(rs.getLong("id"));
+            descriptions.add(rs.getString("description"));
+        });
+        insertInto(NEXT_TABLE, ids, descriptions);
+    }
+
+    private void swap() {
+        swapLock.writeLock().lock();
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO transaction_tokens_old");
+            try {
+                jdbcTemplate.execute("ALTER TABLE " + NEXT_TABLE + " RENAME TO " + TABLE);
+            } catch (DataAccessException e) {
+                jdbcTemplate.execute("ALTER TABLE transaction_tokens_old RENAME TO " + TABLE);
+                throw e;
+            }
+            rebuilding = false;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        // The new index is live; what is left only tidies up names, so a failure is logged, not retried
+        try {
+            jdbcTemplate.execute("DROP TABLE transaction_tokens_old");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME CONSTRAINT fk_transaction_tokens_next_transaction " +
+                    "TO fk_transaction_tokens_transaction");
+            jdbcTemplate.execute("ALTER INDEX idx_transaction_token_next_transaction RENAME TO idx_transaction_token_transaction");
+        } catch (DataAccessException e) {
+            log.warn("Could not drop the previous search index or rename the new one's constraints", e);
+        }
+    }
+
+    private void dropNextTable() {
+        swapLock.writeLock().lock();
+        try {
+            rebuilding = false;
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + NEXT_TABLE);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private void insertInto(String table, List<Long> transactionIds, List<String> descriptions) {
+        List<Object[]> rows = tokenRows(transactionIds, descriptions);
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL.formatted(table), rows);
+        }
+    }
+
+    private static List<Object[]> tokenRows(List<Long> transactionIds, List<String> descriptions) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < transactionIds.size(); i++) {
+            for (String token : tokensOf(descriptions.get(i))) {
+                rows.add(new Object[]{token, transactionIds.get(i)});
+            }
+        }
+        return rows;
+    }
+
+    // Stops at the first transaction whose words are missing; a full scan when the index is in sync
+    public boolean isInSync() {
+        Boolean missing = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (" + MISSING_SQL.formatted(TABLE) + ")", Boolean.class);
+        return !Boolean.TRUE.equals(missing);
+    }
+
+    // Rows inserted around the services, as data.sql does on each start, are the newest ones
+    private boolean isNewestIndexed() {
+        Boolean missing = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM (SELECT id, description FROM transactions ORDER BY id DESC " +
+                "FETCH FIRST 1 ROWS ONLY) t WHERE " + HAS_WORDS_SQL + " " +
+                "AND NOT EXISTS (SELECT 1 FROM " + TABLE + " k WHERE k.transaction_id = t.id))",
+                Boolean.class);
+        return !Boolean.TRUE.equals(missing);
+    }
+}
@@ -0,0 +1,23 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public interface TransactionWritePipeline {
+    // Completes once the batch holding this transaction has committed
+    CompletableFuture<TransactionDto> submit(TransactionRequestDto request);
+
+    default TransactionDto createTransaction(TransactionRequestDto request) {
+        try {
+            return submit(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
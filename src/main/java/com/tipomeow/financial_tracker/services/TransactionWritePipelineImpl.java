@@ -0,0 +1,222 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.entity.Category;
+import com.tipomeow.financial_tracker.entity.ChangeAggregateType;
+import com.tipomeow.financial_tracker.entity.ChangeOperation;
+import com.tipomeow.financial_tracker.exception.ResourceNotFoundException;
+import com.tipomeow.financial_tracker.exception.WriteQueueFullException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional group commit for single transaction creates, enabled with
+ * {@code financial-tracker.write-pipeline.enabled=true}. Callers put requests on a bounded queue and one writer
+ * thread inserts whatever has queued up, up to {@code max-batch} rows or {@code max-delay} after the first, as
+ * one JDBC batch in one database transaction. Each caller's future completes after that commit.
+ * <p>
+ * The rollup, outbox, ETag and snapshot hooks run once per batch, as for the batch endpoints. A batch that fails
+ * is rolled back and its requests are retried one by one through {@link TransactionService}, so one bad row
+ * fails only its own caller. A full queue rejects new requests after {@code offer-timeout}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "financial-tracker.write-pipeline.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TransactionWritePipelineImpl implements TransactionWritePipeline {
+    private static final Duration IDLE_POLL = Duration.ofMillis(100);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryCache categoryCache;
+    private final LedgerRollupService ledgerRollupService;
+    private final LedgerVersion ledgerVersion;
+    private final ObjectProvider<AnalyticsSnapshotService> analyticsSnapshot;
+    private final ChangeOutbox changeOutbox;
+    private final TransactionTextIndex transactionTextIndex;
+    private final TransactionService transactionService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${financial-tracker.write-pipeline.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${financial-tracker.write-pipeline.max-batch:256}")
+    private int maxBatch;
+
+    @Value("${financial-tracker.write-pipeline.max-delay:2ms}")
+    private Duration maxDelay;
+
+    @Value("${financial-tracker.write-pipeline.offer-timeout:100ms}")
+    private Duration offerTimeout;
+
+    private record PendingWrite(TransactionRequestDto request, Category category,
+                                CompletableFuture<TransactionDto> result) {
+    }
+
+    private BlockingQueue<PendingWrite> queue;
+    private DistributionSummary batchSizes;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    void startWriter() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("financial.tracker.write.pipeline.queue", queue, BlockingQueue::size);
+        batchSizes = DistributionSummary.builder("financial.tracker.write.pipeline.batch.size")
+                .description("Transactions committed per group commit")
+                .register(meterRegistry);
+        running = true;
+        writer = Thread.ofPlatform().name("transaction-writer").daemon().start(this::runWriter);
+    }
+
+    // Requests already queued are still written; anything the writer did not reach fails
+    @PreDestroy
+    void stopWriter() throws InterruptedException {
+        running = false;
+        writer.join(Duration.ofSeconds(10));
+        PendingWrite left;
+        while ((left = queue.poll()) != null) {
+            left.result().completeExceptionally(new WriteQueueFullException("Write pipeline is shut down"));
+        }
+    }
+
+    // Validated on the caller's thread, so an unknown category or bad amount fails without taking a queue slot
+    @Override
+    public CompletableFuture<TransactionDto> submit(TransactionRequestDto request) {
+        if (request.getCategoryId() == null) {
+            throw new ResourceNotFoundException("Category id cannot be null");
+        }
+        Category category = categoryCache.findById(request.getCategoryId()).orElseThrow(
+                () -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
+        TransactionAmounts.requireInRange(request.getAmount());
+        if (request.getTime() == null) {
+            request.setTime(Instant.now());
+        }
+        if (!running) {
+            throw new WriteQueueFullException("Write pipeline is shut down");
+        }
+        PendingWrite write = new PendingWrite(request, category, new CompletableFuture<>());
+        try {
+            if (!queue.offer(write, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new WriteQueueFullException("Write queue is full, retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WriteQueueFullException("Interrupted while waiting for the write queue");
+        }
+        return write.result();
+    }
+
+    private void runWriter() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Write pipeline batch of {} failed", batch.size(), e);
+                batch.forEach(write -> write.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Takes what is already queued, then waits up to max-delay after the first request for more
+    private void fill(List<PendingWrite> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelay.toNanos();
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                return;
+            }
+            PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        batchSizes.record(batch.size());
+        List<TransactionDto> created;
+        try {
+            created = transactionTemplate.execute(status -> insert(batch));
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} transactions rolled back, retrying them one by one: {}",
+                    batch.size(), e.getMessage());
+            for (PendingWrite write : batch) {
+                try {
+                    write.result().complete(transactionService.createTransaction(write.request()));
+                } catch (RuntimeException single) {
+                    write.result().completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(created.get(i));
+        }
+    }
+
+    private List<TransactionDto> insert(List<PendingWrite> batch) {
+        List<TransactionRequestDto> requests = batch.stream().map(PendingWrite::request).toList();
+        List<Long> ids = TransactionInserts.insert(jdbcTemplate, requests, batch.size());
+        ledgerRollupService.recordBatchCreated(requests);
+        transactionTextIndex.indexAll(ids, requests.stream().map(TransactionRequestDto::getDescription).toList());
+        ledgerVersion.transactionsChangedAfterCommit();
+        List<TransactionDto> created = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite write = batch.get(i);
+            TransactionDto dto = toDto(ids.get(i), write.request(), write.category());
+            // Same event as TransactionServiceImpl.createTransaction, so consumers cannot tell the paths apart
+            changeOutbox.append(ChangeAggregateType.TRANSACTION, dto.getId(), ChangeOperation.CREATED, dto);
+            analyticsSnapshot.ifAvailable(snapshot -> snapshot.recordSavedAfterCommit(
+                    dto.getId(), dto.getCategoryId(), dto.getTime(), dto.getAmount()));
+            created.add(dto);
+        }
+        return created;
+    }
+
+    private static TransactionDto toDto(Long id, TransactionRequestDto request, Category category) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(id);
+        dto.setDescription(request.getDescription());
+        dto.setAmount(request.getAmount());
+        dto.setTime(request.getTime());
+        dto.setCategoryId(category.getId());
+        dto.setCategoryName(category.getName());
+        dto.setCategoryType(category.getType());
+        return dto;
+    }
+}
@@ -0,0 +1,17 @@
+-- Schema of the application before versioned migrations, as ddl-auto=update created it. Existing databases are
+-- baselined at V1, so every later table and index goes in its own migration and tolerates already existing.
+CREATE TABLE categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type ENUM ('EXPENSE', 'INCOME'),
+    name VARCHAR(50) NOT NULL,
+    CONSTRAINT uk_categories_name UNIQUE (name)
+);
+
+CREATE TABLE transactions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    category_id BIGINT NOT NULL,
+    description VARCHAR(100),
+    amount NUMERIC(10, 2),
+    time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT fk_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS balance_checkpoints (
+    checkpoint_date DATE NOT NULL PRIMARY KEY,
+    income_total NUMERIC(19, 2) NOT NULL,
+    expense_total NUMERIC(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL
+);
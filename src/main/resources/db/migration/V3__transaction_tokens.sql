@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS transaction_tokens (
+    token VARCHAR(32) NOT NULL,
+    transaction_id BIGINT NOT NULL,
+    PRIMARY KEY (token, transaction_id),
+    CONSTRAINT fk_transaction_tokens_transaction FOREIGN KEY (transaction_id)
+        REFERENCES transactions (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_token_transaction ON transaction_tokens (transaction_id);
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS archived_transactions (
+    id BIGINT NOT NULL PRIMARY KEY,
+    category_id BIGINT NOT NULL,
+    description VARCHAR(100),
+    amount NUMERIC(10, 2),
+    time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT fk_archived_transactions_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_archived_transaction_time_id ON archived_transactions (time, id);
+CREATE INDEX IF NOT EXISTS idx_archived_transaction_category_time_id ON archived_transactions (category_id, time, id);
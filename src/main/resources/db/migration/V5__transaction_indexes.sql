@@ -0,0 +1,4 @@
+CREATE INDEX IF NOT EXISTS idx_transaction_time_id ON transactions (time, id);
+CREATE INDEX IF NOT EXISTS idx_transaction_category_time_id ON transactions (category_id, time, id);
+CREATE INDEX IF NOT EXISTS idx_transaction_amount ON transactions (amount);
+CREATE INDEX IF NOT EXISTS idx_transaction_description ON transactions (description);
@@ -0,0 +1,8 @@
+-- Filled from the transactions by LedgerRollupInitializer on the first start after this migration
+CREATE TABLE IF NOT EXISTS category_daily_totals (
+    category_id BIGINT NOT NULL,
+    bucket_date DATE NOT NULL,
+    total_amount NUMERIC(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    PRIMARY KEY (category_id, bucket_date)
+);
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS change_events (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sequence BIGINT,
+    aggregate_type ENUM ('TRANSACTION', 'CATEGORY') NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    operation ENUM ('CREATED', 'UPDATED', 'DELETED') NOT NULL,
+    payload VARCHAR(2000),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    published_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_change_events_sequence UNIQUE (sequence)
+);
+
+CREATE INDEX IF NOT EXISTS idx_change_event_sequence_id ON change_events (sequence, id);
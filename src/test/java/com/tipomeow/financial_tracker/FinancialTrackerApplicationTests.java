@@ -1,9 +1,8 @@
 package com.tipomeow.financial_tracker;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@LedgerTest
 class FinancialTrackerApplicationTests {
 
 	@Test
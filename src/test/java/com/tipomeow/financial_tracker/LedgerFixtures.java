@@ -0,0 +1,95 @@
+package com.tipomeow.financial_tracker;
+
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.CategoryRequestDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.services.CategoryService;
+import com.tipomeow.financial_tracker.services.TransactionService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test data for {@link LedgerTest} classes: categories with names no other test uses, and transaction requests
+ * built from what a test cares about, with defaults for the rest. The static builders need no context.
+ */
+public class LedgerFixtures {
+
+	private static final AtomicLong NEXT_CATEGORY = new AtomicLong();
+
+	private final CategoryService categoryService;
+	private final TransactionService transactionService;
+
+	public LedgerFixtures(CategoryService categoryService, TransactionService transactionService) {
+		this.categoryService = categoryService;
+		this.transactionService = transactionService;
+	}
+
+	// The name gets a sequence number, so the category and its rows belong to the calling test alone
+	public CategoryDto category(String name, CategoryType type) {
+		return categoryService.createCategory(categoryRequest(name + " " + NEXT_CATEGORY.incrementAndGet(), type));
+	}
+
+	public CategoryDto category(String name) {
+		return category(name, CategoryType.EXPENSE);
+	}
+
+	public TransactionDto create(TransactionRequestBuilder transaction) {
+		return transactionService.createTransaction(transaction.build());
+	}
+
+	public static CategoryRequestDto categoryRequest(String name, CategoryType type) {
+		CategoryRequestDto request = new CategoryRequestDto();
+		request.setName(name);
+		request.setType(type);
+		return request;
+	}
+
+	public static TransactionRequestBuilder transaction(Long categoryId) {
+		return new TransactionRequestBuilder(categoryId);
+	}
+
+	// 12.50 described as "Fixture", at the time the service assigns when none is set
+	public static final class TransactionRequestBuilder {
+
+		private final Long categoryId;
+		private String description = "Fixture";
+		private BigDecimal amount = new BigDecimal("12.50");
+		private Instant time;
+
+		private TransactionRequestBuilder(Long categoryId) {
+			this.categoryId = categoryId;
+		}
+
+		public TransactionRequestBuilder description(String description) {
+			this.description = description;
+			return this;
+		}
+
+		public TransactionRequestBuilder amount(String amount) {
+			return amount(new BigDecimal(amount));
+		}
+
+		public TransactionRequestBuilder amount(BigDecimal amount) {
+			this.amount = amount;
+			return this;
+		}
+
+		public TransactionRequestBuilder at(Instant time) {
+			this.time = time;
+			return this;
+		}
+
+		public TransactionRequestDto build() {
+			TransactionRequestDto request = new TransactionRequestDto();
+			request.setCategoryId(categoryId);
+			request.setDescription(description);
+			request.setAmount(amount);
+			request.setTime(time);
+			return request;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.tipomeow.financial_tracker;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The application context most integration tests share: one in-memory database and one property set, so Spring
+ * builds it once per run. The opt-in features are all switched on, and the chunk and batch sizes are small enough
+ * that a handful of rows crosses them.
+ * <p>
+ * Tests share the data as well, so each one writes to categories of its own from {@link LedgerFixtures}, and a
+ * test that sums across categories (reports, balances) uses dates no other class writes to. A test that leaves
+ * rows behind outside the services (plain JDBC, the archive job) removes them again. Classes that need a
+ * different database or profile (read replica, {@code create-drop} schemas, {@code prod}) declare their own
+ * {@code @SpringBootTest}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:ledger-tests;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"financial-tracker.analytics.enabled=true",
+		"financial-tracker.archive.chunk-size=2",
+		"financial-tracker.batch.chunk-size=7",
+		"financial-tracker.import.chunk-size=2",
+		"financial-tracker.import.batch-size=2",
+		"financial-tracker.outbox.relay-interval-ms=3600000",
+		"financial-tracker.reports.max-in-flight=2",
+		"financial-tracker.write-pipeline.enabled=true",
+		"financial-tracker.write-pipeline.max-delay=50ms",
+		"financial-tracker.write-pipeline.max-batch=64"
+})
+@AutoConfigureMockMvc
+@Import(LedgerFixtures.class)
+public @interface LedgerTest {
+}
@@ -0,0 +1,86 @@
+package com.tipomeow.financial_tracker;
+
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.services.ChangeEventRelay;
+import com.tipomeow.financial_tracker.services.ChangeEventService;
+import com.tipomeow.financial_tracker.services.LedgerRollupService;
+import com.tipomeow.financial_tracker.services.TransactionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database created by the application before Flyway was introduced: baselined at V1, then migrated forward
+@SpringBootTest(properties = "spring.datasource.url=" + ProductionBaselineTests.URL)
+@ActiveProfiles("prod")
+class ProductionBaselineTests {
+
+	static final String URL = "jdbc:h2:mem:production-baseline-tests;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private ChangeEventService changeEventService;
+
+	@Autowired
+	private ChangeEventRelay changeEventRelay;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Runs before the context starts; the DDL is what ddl-auto=update generated for the original entities
+	@BeforeAll
+	static void createPreFlywaySchema() throws SQLException {
+		try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE categories (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+					+ "type ENUM ('EXPENSE', 'INCOME'), name VARCHAR(50) NOT NULL UNIQUE)");
+			statement.execute("CREATE TABLE transactions (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+					+ "category_id BIGINT NOT NULL REFERENCES categories (id), description VARCHAR(100), "
+					+ "amount NUMERIC(10, 2), time TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+			statement.execute("INSERT INTO categories (type, name) VALUES ('EXPENSE', 'Existing')");
+			statement.execute("INSERT INTO transactions (category_id, description, amount, time) "
+					+ "VALUES (1, 'Before Flyway', 8.00, TIMESTAMP WITH TIME ZONE '2024-05-01 10:00:00+00')");
+		}
+	}
+
+	@Test
+	void baselinedDatabaseGetsTheLaterTablesAndServesWrites() {
+		// V1 is recorded as the baseline, not run; every later migration runs against the existing tables
+		assertThat(jdbcTemplate.queryForList("SELECT \"version\" || ' ' || \"type\" FROM \"flyway_schema_history\" "
+				+ "WHERE \"version\" IS NOT NULL AND \"success\" ORDER BY \"installed_rank\"", String.class))
+				.containsExactly("1 BASELINE", "2 SQL", "3 SQL", "4 SQL", "5 SQL", "6 SQL", "7 SQL");
+
+		TransactionRequestDto request = new TransactionRequestDto();
+		request.setCategoryId(1L);
+		request.setDescription("After Flyway");
+		request.setAmount(new BigDecimal("2.00"));
+		request.setTime(Instant.parse("2024-05-01T11:00:00Z"));
+		TransactionDto created = transactionService.createTransaction(request);
+
+		assertThat(transactionService.getTransactionById(created.getId()).getDescription()).isEqualTo("After Flyway");
+		// The rollup of the existing row was built at startup
+		assertThat(transactionService.getCategoryExpenseSummary()).singleElement()
+				.satisfies(summary -> assertThat(summary.getTotalExpenses()).isEqualByComparingTo("10.00"));
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+
+		changeEventRelay.relay();
+		assertThat(changeEventService.getChangesSince(0, 10).getEvents()).hasSize(1);
+	}
+}
@@ -0,0 +1,67 @@
+package com.tipomeow.financial_tracker;
+
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.CategoryRequestDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.services.CategoryService;
+import com.tipomeow.financial_tracker.services.ChangeEventRelay;
+import com.tipomeow.financial_tracker.services.ChangeEventService;
+import com.tipomeow.financial_tracker.services.LedgerRollupService;
+import com.tipomeow.financial_tracker.services.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The prod profile builds the schema from the Flyway migrations only, so this catches drift from the entities
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:production-profile-tests;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("prod")
+class ProductionProfileTests {
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private ChangeEventService changeEventService;
+
+	@Autowired
+	private ChangeEventRelay changeEventRelay;
+
+	@Test
+	void migratedSchemaServesWritesWithoutSeedData() {
+		assertThat(categoryService.getAllCategories()).isEmpty();
+
+		CategoryRequestDto category = new CategoryRequestDto();
+		category.setName("Migrated");
+		category.setType(CategoryType.EXPENSE);
+		CategoryDto created = categoryService.createCategory(category);
+
+		TransactionRequestDto request = new TransactionRequestDto();
+		request.setCategoryId(created.getId());
+		request.setDescription("Flyway");
+		request.setAmount(new BigDecimal("42.00"));
+		request.setTime(Instant.parse("2030-01-01T10:00:00Z"));
+		TransactionDto transaction = transactionService.createTransaction(request);
+
+		assertThat(transactionService.getTransactionById(transaction.getId()).getCategoryType()).isEqualTo(CategoryType.EXPENSE);
+		assertThat(transactionService.getCategoryExpenseSummary()).singleElement()
+				.satisfies(summary -> assertThat(summary.getTotalExpenses()).isEqualByComparingTo("42.00"));
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+
+		changeEventRelay.relay();
+		assertThat(changeEventService.getChangesSince(0, 10).getEvents()).hasSize(2);
+	}
+}
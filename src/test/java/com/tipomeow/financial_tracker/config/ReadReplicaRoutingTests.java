@@ -0,0 +1,94 @@
+package com.tipomeow.financial_tracker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.exception.ResourceNotFoundException;
+import com.tipomeow.financial_tracker.services.TransactionService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The replica only catches up when a test calls sync(), so every write is "lagging" until then
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:read-replica-primary;DB_CLOSE_DELAY=-1",
+		"financial-tracker.read-replica.enabled=true",
+		"financial-tracker.read-replica.url=jdbc:h2:mem:read-replica-replica;DB_CLOSE_DELAY=-1",
+		"financial-tracker.read-replica.h2-sync-interval=1h",
+		"financial-tracker.read-replica.max-lag=1h"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private H2ReplicaSync replicaSync;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void readOnlyMethodsReadTheReplicaUntilItCatchesUp() {
+		TransactionDto created = transactionService.createTransaction(request("Replica lag"));
+
+		assertThatThrownBy(() -> transactionService.getTransactionById(created.getId()))
+				.isInstanceOf(ResourceNotFoundException.class);
+
+		replicaSync.sync();
+		assertThat(transactionService.getTransactionById(created.getId()).getDescription()).isEqualTo("Replica lag");
+	}
+
+	@Test
+	void writesReadAndWriteThePrimary() {
+		TransactionDto created = transactionService.createTransaction(request("Primary only"));
+
+		TransactionDto updated = transactionService.updateTransaction(created.getId(), request("Primary updated"));
+
+		assertThat(updated.getDescription()).isEqualTo("Primary updated");
+	}
+
+	@Test
+	void clientThatWroteReadsItsOwnWritesFromThePrimary() throws Exception {
+		MvcResult created = mockMvc.perform(post("/api/transactions")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(request("Own write"))))
+				.andExpect(status().isCreated())
+				.andReturn();
+		Cookie lastWrite = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+		assertThat(lastWrite).isNotNull();
+		long id = objectMapper.readValue(created.getResponse().getContentAsString(), TransactionDto.class).getId();
+
+		mockMvc.perform(get("/api/transactions/" + id).cookie(lastWrite))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/transactions/" + id))
+				.andExpect(status().isNotFound());
+		Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+				Long.toString(System.currentTimeMillis() - Duration.ofHours(2).toMillis()));
+		mockMvc.perform(get("/api/transactions/" + id).cookie(expired))
+				.andExpect(status().isNotFound());
+	}
+
+	private static TransactionRequestDto request(String description) {
+		return transaction(3L).description(description).amount("9.99").at(Instant.parse("2036-01-01T09:00:00Z")).build();
+	}
+}
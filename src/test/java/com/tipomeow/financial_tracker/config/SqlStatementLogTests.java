@@ -0,0 +1,23 @@
+package com.tipomeow.financial_tracker.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementLogTests {
+
+	@Test
+	void literalsAndInListsShareOneFingerprint() {
+		String first = SqlStatementLog.normalize("select * from transactions t\n  where t.id in (?, ?, ?) and t.amount > 10.50");
+		String second = SqlStatementLog.normalize("select * from transactions t where t.id in (?,?) and t.amount > 7");
+
+		assertThat(first).isEqualTo("select * from transactions t where t.id in (?...) and t.amount > ?");
+		assertThat(SqlStatementLog.fingerprint(first)).isEqualTo(SqlStatementLog.fingerprint(second));
+	}
+
+	@Test
+	void stringLiteralsAreMasked() {
+		assertThat(SqlStatementLog.normalize("select 1 from categories where name = 'Food ''n'' drink'"))
+				.isEqualTo("select ? from categories where name = ?");
+	}
+}
@@ -0,0 +1,66 @@
+package com.tipomeow.financial_tracker.controller;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@LedgerTest
+class ConditionalGetTests {
+
+	private static final String SUMMARY = "/api/categories/expenses/summary";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void resetStatistics() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void unchangedLedgerAnswers304WithoutQuerying() throws Exception {
+		String eTag = mockMvc.perform(get(SUMMARY))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).isNotBlank();
+		statistics.clear();
+
+		mockMvc.perform(get(SUMMARY).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void transactionWriteChangesETag() throws Exception {
+		String before = mockMvc.perform(get(SUMMARY))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		fixtures.create(transaction(fixtures.category("Conditional GET").getId()).amount("1.00"));
+
+		String after = mockMvc.perform(get(SUMMARY).header(HttpHeaders.IF_NONE_MATCH, before))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(after).isNotEqualTo(before);
+	}
+}
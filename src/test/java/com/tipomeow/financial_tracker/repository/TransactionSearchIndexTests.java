@@ -0,0 +1,167 @@
+package com.tipomeow.financial_tracker.repository;
+
+import com.tipomeow.financial_tracker.config.SqlStatementCounter;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
+import com.tipomeow.financial_tracker.services.TransactionCursor;
+import com.tipomeow.financial_tracker.services.TransactionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each search filter through {@link TransactionService#searchTransactions}, captures the SQL Hibernate
+ * generates for it and checks that H2 plans an index lookup on {@code transactions} instead of a table scan.
+ * The plan is explained with the search's values bound, in filter order and then the row limit: H2 plans some
+ * conditions from the values, such as the index range of a {@code LIKE} prefix.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:search-index-tests;DB_CLOSE_DELAY=-1",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionSearchIndexTests {
+
+	private static final Instant FEBRUARY = Instant.parse("2023-02-01T00:00:00Z");
+	private static final int LIMIT = 51;
+
+	// Sees every statement Hibernate prepares, then counts it as the application's counter does
+	static class CapturingStatementCounter extends SqlStatementCounter {
+		final List<String> statements = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			statements.add(sql);
+			return super.inspect(sql);
+		}
+	}
+
+	@TestConfiguration
+	static class CaptureConfig {
+		@Bean
+		@Primary
+		CapturingStatementCounter capturingStatementCounter() {
+			return new CapturingStatementCounter();
+		}
+	}
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private CapturingStatementCounter statementCounter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void seed() {
+		jdbcTemplate.update(
+				"INSERT INTO transactions (category_id, description, amount, time) " +
+				"SELECT MOD(X, 6) + 1, 'Row ' || X, MOD(X, 1000) + 0.99, " +
+				"DATEADD(MINUTE, X, TIMESTAMP WITH TIME ZONE '2023-01-01 00:00:00+00') " +
+				"FROM SYSTEM_RANGE(1, 50000)");
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	Stream<Arguments> singleFilters() {
+		return Stream.of(
+				Arguments.of(filter(c -> {
+					c.setFrom(FEBRUARY);
+					c.setTo(FEBRUARY.plusSeconds(86_400));
+				}), List.of(utc(FEBRUARY), utc(FEBRUARY.plusSeconds(86_400))), "IDX_TRANSACTION_TIME_ID"),
+				// Neither category index keeps two categories in time order, and H2 picks the narrower one that
+				// backs the foreign key, whose name is generated: match its index condition instead
+				Arguments.of(filter(c -> c.setCategoryIds(List.of(3L, 4L))), List.of(3L, 4L),
+						": CATEGORY_ID IN(?1, ?2)"),
+				Arguments.of(filter(c -> {
+					c.setCategoryIds(List.of(3L));
+					c.setFrom(FEBRUARY);
+				}), List.of(utc(FEBRUARY), 3L), "IDX_TRANSACTION_CATEGORY_TIME_ID"),
+				Arguments.of(filter(c -> {
+					c.setMinAmount(new BigDecimal("998"));
+					c.setMaxAmount(new BigDecimal("999"));
+				}), List.of(new BigDecimal("998"), new BigDecimal("999")), "IDX_TRANSACTION_AMOUNT"),
+				Arguments.of(filter(c -> c.setDescription("Row 4999")), List.of("Row 4999%"),
+						"IDX_TRANSACTION_DESCRIPTION"));
+	}
+
+	@ParameterizedTest
+	@MethodSource("singleFilters")
+	void filterUsesIndex(TransactionSearchRequestDto criteria, List<Object> values, String expectedIndex) {
+		String plan = explainSearch(criteria, null, values);
+		assertThat(plan).containsIgnoringCase(expectedIndex);
+		assertThat(plan).doesNotContainIgnoringCase("tableScan");
+	}
+
+	Stream<Arguments> combinedFilters() {
+		return Stream.of(
+				Arguments.of(filter(c -> {
+					c.setCategoryIds(List.of(3L));
+					c.setMinAmount(new BigDecimal("998"));
+					c.setDescription("Row");
+				}), List.of(3L, new BigDecimal("998"), "Row%")),
+				Arguments.of(filter(c -> {
+					c.setFrom(FEBRUARY);
+					c.setMaxAmount(new BigDecimal("5"));
+				}), List.of(utc(FEBRUARY), new BigDecimal("5"))));
+	}
+
+	@ParameterizedTest
+	@MethodSource("combinedFilters")
+	void combinedFiltersAvoidTableScan(TransactionSearchRequestDto criteria, List<Object> values) {
+		assertThat(explainSearch(criteria, null, values)).doesNotContainIgnoringCase("tableScan");
+	}
+
+	@Test
+	void keysetPageAvoidsTableScan() {
+		TransactionSearchRequestDto criteria = filter(c -> c.setTo(FEBRUARY));
+		String cursor = transactionService.searchTransactions(criteria, null, 50).getNextCursor();
+		assertThat(cursor).isNotNull();
+		TransactionCursor after = TransactionCursor.decode(cursor);
+		List<Object> values = List.of(utc(FEBRUARY), utc(after.time()), utc(after.time()), after.id());
+		assertThat(explainSearch(criteria, cursor, values)).doesNotContainIgnoringCase("tableScan");
+	}
+
+	private String explainSearch(TransactionSearchRequestDto criteria, String cursor, List<Object> values) {
+		statementCounter.statements.clear();
+		transactionService.searchTransactions(criteria, cursor, 50);
+		List<String> searches = statementCounter.statements.stream()
+				.filter(sql -> sql.toLowerCase().contains("from transactions"))
+				.toList();
+		assertThat(searches).hasSize(1);
+		List<Object> arguments = new ArrayList<>(values);
+		arguments.add(LIMIT);
+		return jdbcTemplate.queryForObject("EXPLAIN " + searches.get(0), String.class, arguments.toArray());
+	}
+
+	private static OffsetDateTime utc(Instant time) {
+		return time.atOffset(ZoneOffset.UTC);
+	}
+
+	private static TransactionSearchRequestDto filter(Consumer<TransactionSearchRequestDto> filters) {
+		TransactionSearchRequestDto criteria = new TransactionSearchRequestDto();
+		filters.accept(criteria);
+		return criteria;
+	}
+}
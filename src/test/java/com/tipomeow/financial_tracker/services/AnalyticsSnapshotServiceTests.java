@@ -0,0 +1,98 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.CategoryTotalDto;
+import com.tipomeow.financial_tracker.dto.TimeBucketTotalDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@LedgerTest
+class AnalyticsSnapshotServiceTests {
+
+	private static final Instant DAY = Instant.parse("2031-03-01T00:00:00Z");
+
+	@Autowired
+	private AnalyticsSnapshotService analyticsSnapshotService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Test
+	void snapshotMatchesDatabaseAfterWrites() {
+		long categoryId = fixtures.category("Analytics writes").getId();
+		TransactionDto created = fixtures.create(transaction(categoryId).amount("10.25").at(DAY.plusSeconds(60)));
+		fixtures.create(transaction(categoryId).amount("4.75").at(DAY.plusSeconds(7200)));
+		transactionService.updateTransaction(created.getId(),
+				transaction(categoryId).amount("20.25").at(DAY.plusSeconds(60)).build());
+		TransactionDto deleted = fixtures.create(transaction(categoryId).amount("99.00").at(DAY.plusSeconds(120)));
+		transactionService.deleteTransaction(deleted.getId());
+
+		List<TimeBucketTotalDto> buckets = analyticsSnapshotService.getBucketTotals(
+				DAY, DAY.plus(Duration.ofDays(1)), Duration.ofHours(1), categoryId);
+		assertThat(buckets).hasSize(24);
+		assertThat(buckets.get(0).getTotal()).isEqualByComparingTo("20.25");
+		assertThat(buckets.get(2).getTotal()).isEqualByComparingTo("4.75");
+
+		List<CategoryTotalDto> totals = analyticsSnapshotService.getCategoryTotals(
+				CategoryType.EXPENSE, DAY, DAY.plus(Duration.ofDays(1)));
+		assertThat(totals).filteredOn(total -> total.getCategoryId() == categoryId)
+				.singleElement()
+				.satisfies(total -> assertThat(total.getTransactionCount()).isEqualTo(2));
+
+		assertThat(analyticsSnapshotService.verify().isConsistent()).isTrue();
+	}
+
+	@Test
+	void writesCommittedDuringReloadAreReplayed() {
+		Long categoryId = fixtures.category("Analytics reload").getId();
+		CompletableFuture<Void> reloads = CompletableFuture.runAsync(() -> {
+			for (int i = 0; i < 5; i++) {
+				analyticsSnapshotService.reload();
+			}
+		});
+		for (int i = 0; i < 50; i++) {
+			TransactionDto created = fixtures.create(transaction(categoryId).amount("1.00").at(DAY.plusSeconds(i)));
+			if (i % 5 == 0) {
+				transactionService.deleteTransaction(created.getId());
+			}
+		}
+		reloads.join();
+
+		assertThat(analyticsSnapshotService.verify().isConsistent()).isTrue();
+	}
+
+	// The snapshot folds exact cents, so a write it could not fold must be refused before anything is stored
+	@Test
+	void outOfRangeAmountsAreRejectedBeforeTheWrite() {
+		Long categoryId = fixtures.category("Analytics range").getId();
+		long before = analyticsSnapshotService.verify().getDatabaseRows();
+		assertThatThrownBy(() -> fixtures.create(transaction(categoryId).amount("12.345").at(DAY)))
+				.isInstanceOf(BusinessLogicException.class)
+				.hasMessage("Amount out of range: 12.345");
+
+		TransactionDto created = fixtures.create(transaction(categoryId).amount("12.30").at(DAY));
+		assertThatThrownBy(() -> transactionService.updateTransaction(created.getId(),
+				transaction(categoryId).amount("-1.00").at(DAY).build()))
+				.isInstanceOf(BusinessLogicException.class);
+		assertThat(transactionService.getTransactionById(created.getId()).getAmount()).isEqualByComparingTo("12.30");
+
+		assertThat(analyticsSnapshotService.verify().getDatabaseRows()).isEqualTo(before + 1);
+		assertThat(analyticsSnapshotService.verify().isConsistent()).isTrue();
+	}
+}
@@ -0,0 +1,162 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.categoryRequest;
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Balances sum every category, so the expected values are computed from all rows rather than this class's alone
+@LedgerTest
+class BalanceServiceTests {
+
+	private static final Instant DAY = Instant.parse("2033-03-01T00:00:00Z");
+
+	@Autowired
+	private BalanceService balanceService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void balanceMatchesFullSumAcrossBackDatedWrites() {
+		CategoryDto income = fixtures.category("Balance income", CategoryType.INCOME);
+		CategoryDto expense = fixtures.category("Balance expense", CategoryType.EXPENSE);
+		for (int day = 0; day < 10; day++) {
+			Instant start = DAY.plus(Duration.ofDays(day));
+			fixtures.create(transaction(income.getId()).amount("100.00").at(start.plusSeconds(3600)));
+			fixtures.create(transaction(expense.getId()).amount("30.50").at(start.plusSeconds(7200)));
+		}
+		assertBalances();
+
+		// Checkpoints now exist up to the last day; these writes land in the middle of them
+		TransactionDto backDated = fixtures.create(transaction(expense.getId()).amount("12.25")
+				.at(DAY.plus(Duration.ofDays(3)).plusSeconds(60)));
+		assertBalances();
+
+		transactionService.updateTransaction(backDated.getId(),
+				transaction(income.getId()).amount("5.00").at(DAY.plus(Duration.ofDays(1))).build());
+		assertBalances();
+
+		transactionService.deleteTransaction(backDated.getId());
+		assertBalances();
+	}
+
+	@Test
+	void categoryTypeChangeRebuildsCheckpoints() {
+		CategoryDto flipped = fixtures.category("Balance flipped", CategoryType.EXPENSE);
+		fixtures.create(transaction(flipped.getId()).amount("40.00").at(DAY.minus(Duration.ofDays(30))));
+		assertBalances();
+
+		categoryService.updateCategory(flipped.getId(), categoryRequest(flipped.getName(), CategoryType.INCOME));
+		assertBalances();
+	}
+
+	@Test
+	void runningBalanceOnPagesMatchesBalanceAfterEachRow() {
+		CategoryDto income = fixtures.category("Running income", CategoryType.INCOME);
+		CategoryDto expense = fixtures.category("Running expense", CategoryType.EXPENSE);
+		Instant sameTime = DAY.plus(Duration.ofDays(40));
+		for (int i = 0; i < 6; i++) {
+			Long categoryId = i % 2 == 0 ? income.getId() : expense.getId();
+			fixtures.create(transaction(categoryId).amount("1" + i + ".00").at(sameTime));
+		}
+
+		List<TransactionDto> all = transactionService.getAllTransactions();
+		String cursor = null;
+		int seen = 0;
+		do {
+			TransactionPageDto page = balanceService.getTransactionsPageWithBalance(cursor, 4);
+			for (TransactionDto row : page.getTransactions()) {
+				assertThat(row.getRunningBalance()).isEqualByComparingTo(balanceThrough(all, row));
+				seen++;
+			}
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		assertThat(seen).isEqualTo(all.size());
+	}
+
+	// A page starts from the checkpoint before its first row's day: history before it, skewed here in the
+	// rollup, is never read again
+	@Test
+	void runningBalanceStartsFromTheCheckpoint() {
+		CategoryDto income = fixtures.category("Checkpoint income", CategoryType.INCOME);
+		Instant start = Instant.parse("2095-01-01T12:00:00Z");
+		for (int day = 0; day < 5; day++) {
+			fixtures.create(transaction(income.getId()).amount("10.00").at(start.plus(Duration.ofDays(day))));
+		}
+		List<TransactionDto> all = transactionService.getAllTransactions();
+		// Builds the checkpoints through the last day and takes the invalidations the writes noted
+		balanceService.getBalanceAt(start.plus(Duration.ofDays(5)));
+
+		jdbcTemplate.update("UPDATE category_daily_totals SET total_amount = total_amount + 1000 "
+				+ "WHERE category_id = ? AND bucket_date = DATE '2095-01-01'", income.getId());
+		try {
+			TransactionDto newest = balanceService.getTransactionsPageWithBalance(null, 2).getTransactions().get(0);
+			assertThat(newest.getTime()).isEqualTo(start.plus(Duration.ofDays(4)));
+			assertThat(newest.getRunningBalance()).isEqualByComparingTo(balanceThrough(all, newest));
+		} finally {
+			ledgerRollupService.rebuild();
+		}
+	}
+
+	private void assertBalances() {
+		List<TransactionDto> all = transactionService.getAllTransactions();
+		for (TransactionDto transaction : all) {
+			for (Instant at : List.of(transaction.getTime(), transaction.getTime().plusMillis(1))) {
+				assertThat(balanceService.getBalanceAt(at).getBalance())
+						.as("balance at %s", at)
+						.isEqualByComparingTo(balanceBefore(all, at));
+			}
+		}
+		// The rows are dated in the future, so "now" would not cover them
+		Instant afterAll = all.stream().map(TransactionDto::getTime).max(Instant::compareTo).orElseThrow().plusMillis(1);
+		assertThat(balanceService.getBalanceAt(afterAll).getTransactionCount()).isEqualTo(all.size());
+	}
+
+	private static BigDecimal balanceBefore(List<TransactionDto> all, Instant at) {
+		return all.stream()
+				.filter(transaction -> transaction.getTime().isBefore(at))
+				.map(BalanceServiceTests::signed)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	private static BigDecimal balanceThrough(List<TransactionDto> all, TransactionDto row) {
+		return all.stream()
+				.filter(transaction -> transaction.getTime().isBefore(row.getTime())
+						|| (transaction.getTime().equals(row.getTime()) && transaction.getId() <= row.getId()))
+				.map(BalanceServiceTests::signed)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	private static BigDecimal signed(TransactionDto transaction) {
+		return transaction.getCategoryType() == CategoryType.INCOME
+				? transaction.getAmount()
+				: transaction.getAmount().negate();
+	}
+}
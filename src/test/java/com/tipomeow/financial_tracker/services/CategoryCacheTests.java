@@ -0,0 +1,113 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.config.ReadRouting;
+import com.tipomeow.financial_tracker.dto.CategoryCacheStatsDto;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.mapper.CategoryMapper;
+import com.tipomeow.financial_tracker.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.categoryRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@LedgerTest
+class CategoryCacheTests {
+
+	@Autowired
+	private CategoryCache categoryCache;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private CategoryMapper categoryMapper;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Test
+	void snapshotIsDroppedOnlyOnceTheCreateCommits() {
+		List<CategoryDto> before = categoryCache.findAll();
+		long reloads = categoryCache.getStats().getReloads();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			categoryService.createCategory(categoryRequest("Cache committed", CategoryType.EXPENSE));
+			// Other readers must not see the uncommitted row, so the old snapshot stays until the commit
+			assertThat(categoryCache.findAll()).isSameAs(before);
+			assertThat(categoryCache.findByName("Cache committed")).isEmpty();
+		});
+
+		assertThat(categoryCache.getStats().getSize()).isZero();
+		assertThat(categoryCache.findByName("Cache committed")).isPresent();
+		assertThat(categoryCache.findAll()).hasSize(before.size() + 1);
+		assertThat(categoryCache.getStats().getReloads()).isEqualTo(reloads + 1);
+	}
+
+	@Test
+	void rolledBackCreateLeavesTheSnapshotInPlace() {
+		List<CategoryDto> before = categoryCache.findAll();
+		CategoryCacheStatsDto stats = categoryCache.getStats();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			categoryService.createCategory(categoryRequest("Cache rolled back", CategoryType.EXPENSE));
+			status.setRollbackOnly();
+		});
+
+		assertThat(categoryCache.findAll()).isSameAs(before);
+		assertThat(categoryCache.findByName("Cache rolled back")).isEmpty();
+		assertThat(categoryCache.getStats().getReloads()).isEqualTo(stats.getReloads());
+		assertThat(categoryCache.getStats().getSize()).isEqualTo(stats.getSize());
+	}
+
+	@Test
+	void reloadRacingAnInvalidationIsNotPublished() {
+		// A second cache whose repository invalidates it right after the rows are read, as a category commit
+		// landing mid-reload would
+		AtomicReference<CategoryCache> cache = new AtomicReference<>();
+		AtomicBoolean racing = new AtomicBoolean(true);
+		CategoryRepository repository = (CategoryRepository) Proxy.newProxyInstance(
+				CategoryRepository.class.getClassLoader(), new Class<?>[]{CategoryRepository.class},
+				(proxy, method, args) -> {
+					Object result;
+					try {
+						result = method.invoke(categoryRepository, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+					if (method.getName().equals("findAll") && racing.get()) {
+						cache.get().invalidate();
+					}
+					return result;
+				});
+		cache.set(new CategoryCache(repository, categoryMapper, applicationContext.getBeanProvider(ReadRouting.class)));
+
+		// The rows read are still returned to the caller, but not kept
+		assertThat(cache.get().findAll()).isNotEmpty();
+		assertThat(cache.get().getStats().getSize()).isZero();
+		assertThat(cache.get().findAll()).isNotEmpty();
+		assertThat(cache.get().getStats().getReloads()).isEqualTo(2);
+
+		racing.set(false);
+		List<CategoryDto> published = cache.get().findAll();
+		assertThat(cache.get().getStats().getSize()).isEqualTo(published.size());
+		assertThat(cache.get().findAll()).isSameAs(published);
+		assertThat(cache.get().getStats().getReloads()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,106 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.ChangeEventDto;
+import com.tipomeow.financial_tracker.dto.ChangeEventPageDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.entity.ChangeAggregateType;
+import com.tipomeow.financial_tracker.entity.ChangeOperation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@LedgerTest
+class ChangeEventOutboxTests {
+
+	private static final Instant TIME = Instant.parse("2031-04-01T12:00:00Z");
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private ChangeEventService changeEventService;
+
+	@Autowired
+	private ChangeEventRelay changeEventRelay;
+
+	@Autowired
+	private TransactionImportService transactionImportService;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Test
+	void writesArePublishedInOrderAfterRelay() {
+		Long categoryId = fixtures.category("Outbox order").getId();
+		long since = relayedSequence();
+
+		TransactionDto created = fixtures.create(transaction(categoryId).at(TIME));
+		transactionService.updateTransaction(created.getId(), transaction(categoryId).amount("13.50").at(TIME).build());
+		transactionService.deleteTransaction(created.getId());
+		assertThat(changeEventService.getChangesSince(since, 100).getEvents()).isEmpty();
+
+		changeEventRelay.relay();
+		ChangeEventPageDto page = changeEventService.getChangesSince(since, 100);
+		List<ChangeEventDto> events = page.getEvents();
+		assertThat(events).extracting(ChangeEventDto::getOperation)
+				.containsExactly(ChangeOperation.CREATED, ChangeOperation.UPDATED, ChangeOperation.DELETED);
+		assertThat(events).allSatisfy(event -> {
+			assertThat(event.getAggregateType()).isEqualTo(ChangeAggregateType.TRANSACTION);
+			assertThat(event.getAggregateId()).isEqualTo(created.getId());
+		});
+		assertThat(events).extracting(ChangeEventDto::getSequence).containsExactly(since + 1, since + 2, since + 3);
+		assertThat(events.get(1).getPayload()).contains("13.5");
+		assertThat(events.get(2).getPayload()).isNull();
+		assertThat(page.getLastSequence()).isEqualTo(since + 3);
+		assertThat(page.isResyncRequired()).isFalse();
+	}
+
+	@Test
+	void failedWriteLeavesNoEvent() {
+		long since = relayedSequence();
+
+		assertThatThrownBy(() -> fixtures.create(transaction(-1L).at(TIME)));
+
+		changeEventRelay.relay();
+		assertThat(changeEventService.getChangesSince(since, 100).getEvents()).isEmpty();
+	}
+
+	@Test
+	void importedRowsArePublishedAsCreated() {
+		Long categoryId = fixtures.category("Outbox import").getId();
+		long since = relayedSequence();
+
+		String body = "{\"categoryId\":" + categoryId + ",\"description\":\"Imported a\",\"amount\":1.00}\n"
+				+ "{\"categoryId\":" + categoryId + ",\"description\":\"Imported b\",\"amount\":2.00}\n";
+		assertThat(transactionImportService.importNdjson(
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))).getInserted()).isEqualTo(2);
+
+		changeEventRelay.relay();
+		List<ChangeEventDto> events = changeEventService.getChangesSince(since, 100).getEvents();
+		assertThat(events).hasSize(2);
+		assertThat(events).allSatisfy(event -> {
+			assertThat(event.getAggregateType()).isEqualTo(ChangeAggregateType.TRANSACTION);
+			assertThat(event.getOperation()).isEqualTo(ChangeOperation.CREATED);
+		});
+	}
+
+	// Sequence of the newest event, after relaying whatever earlier tests left pending
+	private long relayedSequence() {
+		changeEventRelay.relay();
+		ChangeEventPageDto page = changeEventService.getChangesSince(0, 1000);
+		while (!page.getEvents().isEmpty()) {
+			page = changeEventService.getChangesSince(page.getLastSequence(), 1000);
+		}
+		return page.getLastSequence();
+	}
+}
@@ -0,0 +1,133 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.RollupVerificationDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@LedgerTest
+class LedgerRollupServiceTests {
+
+	private static final Instant DAY_ONE = Instant.parse("2040-03-10T23:30:00Z");
+	private static final Instant DAY_TWO = Instant.parse("2040-03-11T00:30:00Z");
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void updateChangingCategoryAndDayMovesTheDelta() {
+		CategoryDto from = fixtures.category("Rollup move from");
+		CategoryDto to = fixtures.category("Rollup move to");
+		TransactionDto moved = fixtures.create(transaction(from.getId()).amount("12.50").at(DAY_ONE));
+		fixtures.create(transaction(from.getId()).amount("7.25").at(DAY_ONE));
+
+		transactionService.updateTransaction(moved.getId(),
+				transaction(to.getId()).amount("20.00").at(DAY_TWO).build());
+
+		assertThat(bucket(from.getId(), DAY_ONE)).containsExactly("7.25/1");
+		assertThat(bucket(from.getId(), DAY_TWO)).isEmpty();
+		assertThat(bucket(to.getId(), DAY_ONE)).isEmpty();
+		assertThat(bucket(to.getId(), DAY_TWO)).containsExactly("20.00/1");
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+	}
+
+	@Test
+	void updateAcrossUtcMidnightEmptiesTheOldDay() {
+		CategoryDto category = fixtures.category("Rollup day change");
+		TransactionDto created = fixtures.create(transaction(category.getId()).amount("12.50").at(DAY_ONE));
+
+		// One hour later, but the next UTC day: the old bucket is left with no rows and is removed
+		transactionService.updateTransaction(created.getId(),
+				transaction(category.getId()).amount("12.50").at(DAY_TWO).build());
+
+		assertThat(bucket(category.getId(), DAY_ONE)).isEmpty();
+		assertThat(bucket(category.getId(), DAY_TWO)).containsExactly("12.50/1");
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+	}
+
+	@Test
+	void updateWithinTheSameBucketOnlyAdjustsTheAmount() {
+		CategoryDto category = fixtures.category("Rollup amount change");
+		TransactionDto created = fixtures.create(transaction(category.getId()).amount("12.50").at(DAY_ONE));
+
+		transactionService.updateTransaction(created.getId(),
+				transaction(category.getId()).amount("15.00").at(DAY_ONE.plusSeconds(60)).build());
+
+		assertThat(bucket(category.getId(), DAY_ONE)).containsExactly("15.00/1");
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+	}
+
+	@Test
+	void deletingTheLastRowOfADayRemovesItsBucket() {
+		CategoryDto category = fixtures.category("Rollup delete");
+		TransactionDto first = fixtures.create(transaction(category.getId()).amount("12.50").at(DAY_ONE));
+		TransactionDto second = fixtures.create(transaction(category.getId()).amount("7.25").at(DAY_ONE));
+
+		transactionService.deleteTransaction(first.getId());
+		assertThat(bucket(category.getId(), DAY_ONE)).containsExactly("7.25/1");
+
+		transactionService.deleteTransaction(second.getId());
+		assertThat(bucket(category.getId(), DAY_ONE)).isEmpty();
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+	}
+
+	@Test
+	void verifyReportsSkewedBucketsAndRebuildRepairsThem() {
+		CategoryDto category = fixtures.category("Rollup rebuild");
+		fixtures.create(transaction(category.getId()).amount("12.50").at(DAY_ONE));
+		fixtures.create(transaction(category.getId()).amount("7.25").at(DAY_TWO));
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+
+		// A stale bucket counts as both missing and unexpected, next to one dropped and one invented bucket
+		jdbcTemplate.update("UPDATE category_daily_totals SET total_amount = 99.00 "
+				+ "WHERE category_id = ? AND bucket_date = ?", category.getId(), LocalDate.parse("2040-03-10"));
+		jdbcTemplate.update("DELETE FROM category_daily_totals WHERE category_id = ? AND bucket_date = ?",
+				category.getId(), LocalDate.parse("2040-03-11"));
+		jdbcTemplate.update("INSERT INTO category_daily_totals (category_id, bucket_date, total_amount, transaction_count) "
+				+ "VALUES (?, ?, 1.00, 1)", category.getId(), LocalDate.parse("2040-03-12"));
+
+		RollupVerificationDto skewed = ledgerRollupService.verify();
+		assertThat(skewed.isConsistent()).isFalse();
+		assertThat(skewed.getMissingOrStaleBuckets()).isEqualTo(2);
+		assertThat(skewed.getUnexpectedBuckets()).isEqualTo(2);
+
+		RollupVerificationDto rebuilt = ledgerRollupService.rebuild();
+
+		assertThat(rebuilt.isConsistent()).isTrue();
+		assertThat(rebuilt.getBucketCount()).isEqualTo(
+				jdbcTemplate.queryForObject("SELECT COUNT(*) FROM category_daily_totals", Long.class));
+		assertThat(bucket(category.getId(), DAY_ONE)).containsExactly("12.50/1");
+		assertThat(bucket(category.getId(), DAY_TWO)).containsExactly("7.25/1");
+		assertThat(bucket(category.getId(), DAY_TWO.plusSeconds(86_400))).isEmpty();
+		assertThat(ledgerRollupService.isInSync()).isTrue();
+	}
+
+	// "total/count" of the UTC day holding the given instant, or nothing when the bucket does not exist
+	private List<String> bucket(Long categoryId, Instant time) {
+		return jdbcTemplate.query("SELECT total_amount, transaction_count FROM category_daily_totals "
+						+ "WHERE category_id = ? AND bucket_date = ?",
+				(rs, row) -> rs.getBigDecimal(1).toPlainString() + "/" + rs.getLong(2),
+				categoryId, LocalDate.ofInstant(time, ZoneOffset.UTC));
+	}
+}
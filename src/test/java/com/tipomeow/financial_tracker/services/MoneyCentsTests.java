@@ -0,0 +1,69 @@
+package com.tipomeow.financial_tracker.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyCentsTests {
+
+	@Test
+	void fromAmountCountsCentsAndTreatsNullAsZero() {
+		assertThat(MoneyCents.fromAmount(new BigDecimal("12.34"))).isEqualTo(1234L);
+		assertThat(MoneyCents.fromAmount(new BigDecimal("7"))).isEqualTo(700L);
+		assertThat(MoneyCents.fromAmount(new BigDecimal("0.10"))).isEqualTo(10L);
+		assertThat(MoneyCents.fromAmount(null)).isZero();
+	}
+
+	@Test
+	void fromAmountKeepsTheSignOfNegativeAmounts() {
+		assertThat(MoneyCents.fromAmount(new BigDecimal("-12.34"))).isEqualTo(-1234L);
+		assertThat(MoneyCents.fromAmount(new BigDecimal("-0.01"))).isEqualTo(-1L);
+	}
+
+	@Test
+	void fromAmountRejectsSubCentFractionsAndValuesBeyondLong() {
+		assertThatThrownBy(() -> MoneyCents.fromAmount(new BigDecimal("1.005")))
+				.isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> MoneyCents.fromAmount(new BigDecimal("-0.001")))
+				.isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> MoneyCents.fromAmount(BigDecimal.valueOf(Long.MAX_VALUE)))
+				.isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void toAmountRoundTripsWithTwoDecimals() {
+		assertThat(MoneyCents.toAmount(1234L)).isEqualTo(new BigDecimal("12.34"));
+		assertThat(MoneyCents.toAmount(-5L)).isEqualTo(new BigDecimal("-0.05"));
+		assertThat(MoneyCents.toAmount(0L)).isEqualTo(new BigDecimal("0.00"));
+		for (String amount : new String[]{"99999999.99", "-99999999.99", "0.01", "123.40"}) {
+			assertThat(MoneyCents.toAmount(MoneyCents.fromAmount(new BigDecimal(amount))))
+					.isEqualTo(new BigDecimal(amount));
+		}
+		for (long cents : new long[]{Long.MAX_VALUE, Long.MIN_VALUE, 1L, -1L}) {
+			assertThat(MoneyCents.fromAmount(MoneyCents.toAmount(cents))).isEqualTo(cents);
+		}
+	}
+
+	@Test
+	void addAndSumAreExact() {
+		assertThat(MoneyCents.add(1250L, -725L)).isEqualTo(525L);
+		assertThat(MoneyCents.sum(new long[]{1250L, 725L, -100L})).isEqualTo(1875L);
+		assertThat(MoneyCents.sum(new long[0])).isZero();
+	}
+
+	@Test
+	void addAndSumThrowOnOverflowInsteadOfWrapping() {
+		assertThatThrownBy(() -> MoneyCents.add(Long.MAX_VALUE, 1L))
+				.isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> MoneyCents.add(Long.MIN_VALUE, -1L))
+				.isInstanceOf(ArithmeticException.class);
+		// The overflow happens midway, even though the full sum would fit again
+		assertThatThrownBy(() -> MoneyCents.sum(new long[]{Long.MAX_VALUE, 1L, -1L}))
+				.isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> MoneyCents.sum(new long[]{Long.MIN_VALUE, -1L}))
+				.isInstanceOf(ArithmeticException.class);
+	}
+}
@@ -0,0 +1,223 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.ReportGranularity;
+import com.tipomeow.financial_tracker.dto.TimeSeriesBucketDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Reports sum every category, so the rows here sit in years no other class writes to
+@LedgerTest
+class TimeSeriesReportServiceTests {
+
+	private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+
+	@Autowired
+	private TimeSeriesReportService timeSeriesReportService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private ReportBucketCache reportBucketCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void dayBucketsFollowDaylightSavingTransitions() {
+		CategoryDto expense = fixtures.category("Report DST", CategoryType.EXPENSE);
+		// 23:30 on March 30 in Berlin, just before clocks go forward at 01:00 UTC
+		create(expense.getId(), "1.00", Instant.parse("2030-03-30T22:30:00Z"));
+		// 23:30 on March 31 in Berlin, now UTC+2
+		create(expense.getId(), "2.00", Instant.parse("2030-03-31T21:30:00Z"));
+		// 00:30 on April 1 in Berlin, past the range
+		create(expense.getId(), "4.00", Instant.parse("2030-03-31T22:30:00Z"));
+
+		List<TimeSeriesBucketDto> report = timeSeriesReportService.getIncomeExpenseReport(
+				Instant.parse("2030-03-29T23:00:00Z"), Instant.parse("2030-03-31T22:00:00Z"),
+				ReportGranularity.DAY, BERLIN, false);
+
+		assertThat(report).hasSize(2);
+		assertThat(length(report.get(0))).isEqualTo(Duration.ofHours(24));
+		assertThat(length(report.get(1))).isEqualTo(Duration.ofHours(23));
+		assertThat(report.get(0).getExpense()).isEqualByComparingTo("1.00");
+		assertThat(report.get(1).getExpense()).isEqualByComparingTo("2.00");
+
+		// October 27 has 25 hours
+		List<TimeSeriesBucketDto> autumn = timeSeriesReportService.getIncomeExpenseReport(
+				Instant.parse("2030-10-26T22:00:00Z"), Instant.parse("2030-10-27T23:00:00Z"),
+				ReportGranularity.DAY, BERLIN, false);
+		assertThat(autumn).hasSize(1);
+		assertThat(length(autumn.get(0))).isEqualTo(Duration.ofHours(25));
+	}
+
+	@Test
+	void weekBucketsStartOnIsoMondayAndClipToTheRange() {
+		CategoryDto expense = fixtures.category("Report weeks", CategoryType.EXPENSE);
+		create(expense.getId(), "8.00", Instant.parse("2030-12-31T12:00:00Z"));
+		create(expense.getId(), "1.00", Instant.parse("2031-01-05T23:59:00Z"));
+		create(expense.getId(), "2.00", Instant.parse("2031-01-06T00:00:00Z"));
+		create(expense.getId(), "3.00", Instant.parse("2031-01-14T23:00:00Z"));
+		create(expense.getId(), "16.00", Instant.parse("2031-01-15T00:00:00Z"));
+
+		// 2031-01-01 is a Wednesday
+		List<TimeSeriesBucketDto> report = timeSeriesReportService.getIncomeExpenseReport(
+				Instant.parse("2031-01-01T00:00:00Z"), Instant.parse("2031-01-15T00:00:00Z"),
+				ReportGranularity.WEEK, ZoneOffset.UTC, false);
+
+		assertThat(report).extracting(TimeSeriesBucketDto::getBucketStart).containsExactly(
+				Instant.parse("2030-12-30T00:00:00Z"),
+				Instant.parse("2031-01-06T00:00:00Z"),
+				Instant.parse("2031-01-13T00:00:00Z"));
+		assertThat(report).extracting(TimeSeriesBucketDto::getExpense)
+				.usingElementComparator(BigDecimal::compareTo)
+				.containsExactly(new BigDecimal("1.00"), new BigDecimal("2.00"), new BigDecimal("3.00"));
+	}
+
+	@Test
+	void monthBucketsCountOnlyRowsInsideTheRange() {
+		CategoryDto income = fixtures.category("Report month income", CategoryType.INCOME);
+		CategoryDto expense = fixtures.category("Report month expense", CategoryType.EXPENSE);
+		create(expense.getId(), "100.00", Instant.parse("2032-02-10T11:00:00Z"));
+		create(expense.getId(), "1.00", Instant.parse("2032-02-10T13:00:00Z"));
+		create(income.getId(), "50.00", Instant.parse("2032-03-15T00:00:00Z"));
+		create(expense.getId(), "20.00", Instant.parse("2032-03-31T23:59:59Z"));
+		create(expense.getId(), "3.00", Instant.parse("2032-04-20T05:00:00Z"));
+		create(expense.getId(), "100.00", Instant.parse("2032-04-20T07:00:00Z"));
+
+		List<TimeSeriesBucketDto> report = timeSeriesReportService.getIncomeExpenseReport(
+				Instant.parse("2032-02-10T12:00:00Z"), Instant.parse("2032-04-20T06:00:00Z"),
+				ReportGranularity.MONTH, ZoneOffset.UTC, true);
+
+		assertThat(report).extracting(TimeSeriesBucketDto::getBucketStart).containsExactly(
+				Instant.parse("2032-02-01T00:00:00Z"),
+				Instant.parse("2032-03-01T00:00:00Z"),
+				Instant.parse("2032-04-01T00:00:00Z"));
+		assertThat(report.get(0).getExpense()).isEqualByComparingTo("1.00");
+		assertThat(report.get(1).getIncome()).isEqualByComparingTo("50.00");
+		assertThat(report.get(1).getExpense()).isEqualByComparingTo("20.00");
+		assertThat(report.get(1).getNet()).isEqualByComparingTo("30.00");
+		assertThat(report.get(1).getCategories()).hasSize(2);
+		assertThat(report.get(2).getExpense()).isEqualByComparingTo("3.00");
+	}
+
+	@Test
+	void wholeUtcDaysReadTheRollupAndClippedBucketsTheTransactions() {
+		CategoryDto expense = fixtures.category("Report rollup", CategoryType.EXPENSE);
+		create(expense.getId(), "10.00", Instant.parse("2034-05-10T12:00:00Z"));
+		// Skew the rollup so the report shows which source answered
+		jdbcTemplate.update("UPDATE category_daily_totals SET total_amount = 999.00 " +
+				"WHERE category_id = ? AND bucket_date = ?", expense.getId(), LocalDate.parse("2034-05-10"));
+
+		try {
+			assertThat(timeSeriesReportService.getIncomeExpenseReport(
+					Instant.parse("2034-05-10T00:00:00Z"), Instant.parse("2034-05-11T00:00:00Z"),
+					ReportGranularity.DAY, ZoneOffset.UTC, false).get(0).getExpense()).isEqualByComparingTo("999.00");
+			assertThat(timeSeriesReportService.getIncomeExpenseReport(
+					Instant.parse("2034-05-10T06:00:00Z"), Instant.parse("2034-05-11T00:00:00Z"),
+					ReportGranularity.DAY, ZoneOffset.UTC, false).get(0).getExpense()).isEqualByComparingTo("10.00");
+			assertThat(timeSeriesReportService.getIncomeExpenseReport(
+					Instant.parse("2034-05-10T00:00:00Z"), Instant.parse("2034-05-11T00:00:00Z"),
+					ReportGranularity.DAY, BERLIN, false)).extracting(TimeSeriesBucketDto::getExpense)
+					.usingElementComparator(BigDecimal::compareTo)
+					.containsExactly(new BigDecimal("10.00"), BigDecimal.ZERO);
+		} finally {
+			assertThat(ledgerRollupService.rebuild().isConsistent()).isTrue();
+		}
+	}
+
+	@Test
+	void manyTransactionBucketsAreSummedWithABoundedNumberInFlight() {
+		CategoryDto expense = fixtures.category("Report in flight", CategoryType.EXPENSE);
+		Instant from = Instant.parse("2035-01-01T00:00:00Z");
+		for (int day = 0; day < 40; day++) {
+			create(expense.getId(), "1.25", from.plus(Duration.ofDays(day)).plus(Duration.ofHours(12)));
+		}
+
+		// Berlin midnights are never UTC midnights, so every bucket is its own query
+		List<TimeSeriesBucketDto> report = timeSeriesReportService.getIncomeExpenseReport(
+				from, from.plus(Duration.ofDays(40)), ReportGranularity.DAY, BERLIN, false);
+
+		assertThat(report).hasSize(41);
+		assertThat(report.stream().map(TimeSeriesBucketDto::getExpense).reduce(BigDecimal.ZERO, BigDecimal::add))
+				.isEqualByComparingTo("50.00");
+		assertThat(report.subList(0, 40)).allSatisfy(bucket ->
+				assertThat(bucket.getExpense()).isEqualByComparingTo("1.25"));
+	}
+
+	@Test
+	void closedBucketsAreCachedAndEvictedByBackDatedWrites() {
+		CategoryDto expense = fixtures.category("Report cache", CategoryType.EXPENSE);
+		create(expense.getId(), "5.00", Instant.parse("2019-02-10T12:00:00Z"));
+		Instant from = Instant.parse("2019-01-01T00:00:00Z");
+		Instant to = Instant.parse("2019-04-01T00:00:00Z");
+		assertThat(februaryExpense(from, to)).isEqualByComparingTo("5.00");
+
+		// A cached bucket does not read the rollup again
+		jdbcTemplate.update("UPDATE category_daily_totals SET total_amount = 999.00 " +
+				"WHERE category_id = ? AND bucket_date = ?", expense.getId(), LocalDate.parse("2019-02-10"));
+		assertThat(februaryExpense(from, to)).isEqualByComparingTo("5.00");
+
+		// Rebuilding clears the cache
+		ledgerRollupService.rebuild();
+		assertThat(februaryExpense(from, to)).isEqualByComparingTo("5.00");
+
+		TransactionDto backDated = create(expense.getId(), "7.00", Instant.parse("2019-02-20T08:00:00Z"));
+		assertThat(februaryExpense(from, to)).isEqualByComparingTo("12.00");
+
+		transactionService.deleteTransaction(backDated.getId());
+		assertThat(februaryExpense(from, to)).isEqualByComparingTo("5.00");
+	}
+
+	@Test
+	void valueComputedBeforeAnEvictionIsNotCached() {
+		ReportBucketCache.Key key = new ReportBucketCache.Key(ZoneOffset.UTC,
+				Instant.parse("2018-06-01T00:00:00Z"), Instant.parse("2018-07-01T00:00:00Z"));
+		long generation = reportBucketCache.generation();
+
+		// No transaction is active, so the eviction runs at once
+		reportBucketCache.evictAfterCommit(Instant.parse("2018-06-15T00:00:00Z"));
+		reportBucketCache.put(key, Map.of(1L, new long[]{100L, 1L}), generation);
+		assertThat(reportBucketCache.get(key)).isNull();
+
+		reportBucketCache.put(key, Map.of(1L, new long[]{100L, 1L}), reportBucketCache.generation());
+		assertThat(reportBucketCache.get(key)).containsKey(1L);
+	}
+
+	private BigDecimal februaryExpense(Instant from, Instant to) {
+		return timeSeriesReportService.getIncomeExpenseReport(from, to, ReportGranularity.MONTH, ZoneOffset.UTC, false)
+				.get(1).getExpense();
+	}
+
+	private static Duration length(TimeSeriesBucketDto bucket) {
+		return Duration.between(bucket.getBucketStart(), bucket.getBucketEnd());
+	}
+
+	private TransactionDto create(Long categoryId, String amount, Instant time) {
+		return fixtures.create(transaction(categoryId).description("Report row").amount(amount).at(time));
+	}
+}
@@ -0,0 +1,188 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import com.tipomeow.financial_tracker.repository.ArchiveBoundary;
+import com.tipomeow.financial_tracker.repository.ArchivedTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A run archives every row past the horizon, other tests' too, so each test moves them all back afterwards
+@LedgerTest
+class TransactionArchiveTests {
+
+	private static final Instant OLD = Instant.parse("2020-06-01T12:00:00Z");
+
+	@Autowired
+	private TransactionArchiveService transactionArchiveService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private ArchiveBoundary archiveBoundary;
+
+	@Autowired
+	private ArchivedTransactionRepository archivedTransactionRepository;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Autowired
+	private BalanceService balanceService;
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void restoreArchivedRows() {
+		transactionArchiveService.restoreMatching(Specification.allOf());
+		archiveBoundary.reset(archivedTransactionRepository.findNewestTime());
+	}
+
+	@Test
+	void archivedRowsStayVisibleThroughListingsPagesAndTotals() {
+		CategoryDto category = fixtures.category("Archive listings");
+		for (int i = 0; i < 3; i++) {
+			fixtures.create(transaction(category.getId()).description("Old " + i).at(OLD.plus(Duration.ofDays(i))));
+		}
+		// Whole seconds, as the column keeps microseconds and the exclusive "to" below must land on a row exactly
+		Instant recent = Instant.now().minus(Duration.ofDays(1)).truncatedTo(ChronoUnit.SECONDS);
+		for (int i = 0; i < 2; i++) {
+			fixtures.create(transaction(category.getId()).description("Recent " + i).at(recent.plusSeconds(i)));
+		}
+		List<Long> before = pagedIds(category.getId(), 2);
+		BigDecimal oldBalance = balanceService.getBalanceAt(OLD.plus(Duration.ofDays(2))).getBalance();
+		BigDecimal balance = balanceService.getBalanceAt(null).getBalance();
+
+		assertThat(transactionArchiveService.archive().getArchivedCount()).isGreaterThanOrEqualTo(3);
+
+		assertThat(hotRows(category.getId())).isEqualTo(2);
+		assertThat(pagedIds(category.getId(), 2)).isEqualTo(before);
+		assertThat(ids(transactionService.getTransactionsByCategory(category.getId())))
+				.containsExactlyInAnyOrderElementsOf(before);
+		assertThat(transactionService.getTransactionById(before.get(4)).getDescription()).isEqualTo("Old 0");
+
+		TransactionSearchRequestDto oldOnly = new TransactionSearchRequestDto();
+		oldOnly.setCategoryIds(List.of(category.getId()));
+		oldOnly.setTo(recent);
+		assertThat(ids(transactionService.searchTransactions(oldOnly, null, 10).getTransactions()))
+				.isEqualTo(before.subList(2, 5));
+
+		assertThat(balanceService.getBalanceAt(OLD.plus(Duration.ofDays(2))).getBalance())
+				.isEqualByComparingTo(oldBalance);
+		assertThat(balanceService.getBalanceAt(null).getBalance()).isEqualByComparingTo(balance);
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+		assertThat(ledgerRollupService.isInSync()).isTrue();
+	}
+
+	@Test
+	void descriptionSearchRanksArchivedRowsWithHotOnes() {
+		Long categoryId = fixtures.category("Archive search").getId();
+		TransactionDto oldest = fixtures.create(transaction(categoryId).description("Bandicoot tour").at(OLD));
+		TransactionDto old = fixtures.create(transaction(categoryId).description("Bandicoot tour")
+				.at(OLD.plus(Duration.ofDays(1))));
+		fixtures.create(transaction(categoryId).description("Tour only").at(OLD.plus(Duration.ofDays(2))));
+		Instant recent = Instant.now().minus(Duration.ofDays(1)).truncatedTo(ChronoUnit.SECONDS);
+		TransactionDto prefix = fixtures.create(transaction(categoryId).description("Bandicoots").at(recent));
+		TransactionDto exact = fixtures.create(transaction(categoryId).description("Bandicoot")
+				.at(recent.plusSeconds(1)));
+		transactionArchiveService.archive();
+		assertThat(hotRows(categoryId)).isEqualTo(2);
+
+		TransactionSearchRequestDto criteria = new TransactionSearchRequestDto();
+		criteria.setCategoryIds(List.of(categoryId));
+		List<Long> expected = List.of(exact.getId(), old.getId(), oldest.getId(), prefix.getId());
+		assertThat(searchedIds("bandicoot", criteria, 10)).isEqualTo(expected);
+		assertThat(searchedIds("bandicoot", criteria, 1)).isEqualTo(expected);
+		assertThat(searchedIds("BANDICOOT tour", criteria, 10)).containsExactly(old.getId(), oldest.getId());
+		assertThat(transactionService.searchText("bandicoot", criteria, null, 10).getTransactions().get(1)
+				.getDescription()).isEqualTo("Bandicoot tour");
+
+		criteria.setFrom(recent);
+		assertThat(searchedIds("bandicoot", criteria, 10)).containsExactly(exact.getId(), prefix.getId());
+	}
+
+	@Test
+	void writesRestoreArchivedRowsToTheHotTable() {
+		CategoryDto category = fixtures.category("Archive writes");
+		TransactionDto updated = fixtures.create(transaction(category.getId()).description("To update").at(OLD));
+		TransactionDto deleted = fixtures.create(transaction(category.getId()).description("To delete")
+				.at(OLD.plusSeconds(1)));
+		TransactionDto kept = fixtures.create(transaction(category.getId()).description("Kept").at(OLD.plusSeconds(2)));
+		transactionArchiveService.archive();
+		assertThat(hotRows(category.getId())).isZero();
+
+		transactionService.updateTransaction(updated.getId(),
+				transaction(category.getId()).description("Updated").at(OLD.plusSeconds(3)).build());
+		transactionService.deleteTransaction(deleted.getId());
+
+		assertThat(hotRows(category.getId())).isEqualTo(1);
+		assertThat(ids(transactionService.getTransactionsByCategory(category.getId())))
+				.containsExactlyInAnyOrder(updated.getId(), kept.getId());
+		assertThat(transactionService.getTransactionById(updated.getId()).getDescription()).isEqualTo("Updated");
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+
+		// Still past the horizon, so the next run archives it again; archived rows still hold the category
+		transactionArchiveService.archive();
+		assertThat(hotRows(category.getId())).isZero();
+		assertThatThrownBy(() -> categoryService.deleteCategory(category.getId()))
+				.isInstanceOf(BusinessLogicException.class);
+	}
+
+	private int hotRows(Long categoryId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE category_id = ?",
+				Integer.class, categoryId);
+	}
+
+	private List<Long> pagedIds(Long categoryId, int size) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			TransactionPageDto page = transactionService.getTransactionsByCategoryPage(categoryId, cursor, size);
+			ids.addAll(ids(page.getTransactions()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private List<Long> searchedIds(String query, TransactionSearchRequestDto criteria, int size) {
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			TransactionPageDto page = transactionService.searchText(query, criteria, cursor, size);
+			ids.addAll(ids(page.getTransactions()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return ids;
+	}
+
+	private static List<Long> ids(List<TransactionDto> transactions) {
+		return transactions.stream().map(TransactionDto::getId).toList();
+	}
+}
@@ -0,0 +1,111 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.BatchUpdateRequestDto;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@LedgerTest
+class TransactionBatchTests {
+
+	private static final Instant DAY = Instant.parse("2032-05-01T00:00:00Z");
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void moveCategoryIsConstantStatementsAndKeepsRollupInSync() {
+		CategoryDto from = fixtures.category("Batch move from");
+		CategoryDto to = fixtures.category("Batch move to");
+		for (int i = 0; i < 40; i++) {
+			create(from.getId(), "Move " + i, i);
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		assertThat(transactionService.moveCategory(from.getId(), to.getId()).getAffected()).isEqualTo(40);
+
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+		assertThat(transactionService.getTransactionsByCategory(from.getId())).isEmpty();
+		assertThat(transactionService.getTransactionsByCategory(to.getId())).hasSize(40);
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+		categoryService.deleteCategory(from.getId());
+	}
+
+	@Test
+	void updateAndDeleteByIdsAcrossChunks() {
+		CategoryDto source = fixtures.category("Batch update source");
+		CategoryDto target = fixtures.category("Batch update target");
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			ids.add(create(source.getId(), "Update " + i, i).getId());
+		}
+
+		BatchUpdateRequestDto update = new BatchUpdateRequestDto();
+		update.setIds(ids.subList(0, 15));
+		update.setCategoryId(target.getId());
+		update.setDescription("Recategorised");
+		assertThat(transactionService.updateTransactions(update).getAffected()).isEqualTo(15);
+		assertThat(transactionService.getTransactionsByCategory(target.getId()))
+				.hasSize(15)
+				.allSatisfy(transaction -> assertThat(transaction.getDescription()).isEqualTo("Recategorised"));
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+
+		assertThat(transactionService.deleteTransactions(ids).getAffected()).isEqualTo(20);
+		assertThat(transactionService.getTransactionsByCategory(source.getId())).isEmpty();
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+	}
+
+	@Test
+	void deleteMatchingUsesFiltersAndRequiresOne() {
+		CategoryDto category = fixtures.category("Batch delete matching");
+		for (int i = 0; i < 16; i++) {
+			create(category.getId(), (i % 2 == 0 ? "Even " : "Odd ") + i, i);
+		}
+
+		TransactionSearchRequestDto criteria = new TransactionSearchRequestDto();
+		criteria.setCategoryIds(List.of(category.getId()));
+		criteria.setDescription("Even");
+		assertThat(transactionService.deleteMatching(criteria).getAffected()).isEqualTo(8);
+		assertThat(transactionService.getTransactionsByCategory(category.getId()))
+				.hasSize(8)
+				.allSatisfy(transaction -> assertThat(transaction.getDescription()).startsWith("Odd"));
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+
+		assertThatThrownBy(() -> transactionService.deleteMatching(new TransactionSearchRequestDto()))
+				.isInstanceOf(BusinessLogicException.class);
+	}
+
+	private TransactionDto create(Long categoryId, String description, int hours) {
+		return fixtures.create(transaction(categoryId).description(description).amount("2.50")
+				.at(DAY.plusSeconds(hours * 3600L)));
+	}
+}
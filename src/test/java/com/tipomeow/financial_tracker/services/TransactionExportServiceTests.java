@@ -0,0 +1,79 @@
+package com.tipomeow.financial_tracker.services;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports a seeded ledger through the streaming path. The {@code export-stress} Maven profile runs this
+ * with 5M rows, a file-backed database and a small {@code -Xmx}, so any full materialization fails with
+ * an OutOfMemoryError.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=${export.test.url:jdbc:h2:mem:export-tests;DB_CLOSE_DELAY=-1}",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TransactionExportServiceTests {
+
+	private static final int SEED_CHUNK = 100_000;
+	private static final int SEEDED_CATEGORY_ID = 3;
+	private static final int DATA_SQL_ROWS = 7;
+
+	@Autowired
+	private TransactionExportService transactionExportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${export.test.rows:20000}")
+	private int rows;
+
+	@BeforeAll
+	void seed() {
+		for (int start = 1; start <= rows; start += SEED_CHUNK) {
+			int end = Math.min(start + SEED_CHUNK - 1, rows);
+			jdbcTemplate.update(
+					"INSERT INTO transactions (category_id, description, amount, time) " +
+					"SELECT ?, 'Export row ' || X, 1.25, DATEADD(SECOND, X, TIMESTAMP WITH TIME ZONE '2030-01-01 00:00:00+00') " +
+					"FROM SYSTEM_RANGE(?, ?)",
+					SEEDED_CATEGORY_ID, start, end);
+		}
+	}
+
+	@Test
+	void exportCsvStreamsEveryRow() {
+		LineCountingOutputStream out = new LineCountingOutputStream();
+		transactionExportService.exportCsv(null, null, null, out);
+		assertThat(out.lines).isEqualTo(1 + rows + DATA_SQL_ROWS);
+	}
+
+	@Test
+	void exportNdjsonAppliesFilters() {
+		LineCountingOutputStream out = new LineCountingOutputStream();
+		Instant from = Instant.parse("2030-01-01T00:00:00Z");
+		Instant to = from.plusSeconds(11);
+		transactionExportService.exportNdjson(from, to, (long) SEEDED_CATEGORY_ID, out);
+		assertThat(out.lines).isEqualTo(Math.min(10, rows));
+	}
+
+	private static class LineCountingOutputStream extends OutputStream {
+		private long lines;
+
+		@Override
+		public void write(int b) {
+			if (b == '\n') {
+				lines++;
+			}
+		}
+	}
+}
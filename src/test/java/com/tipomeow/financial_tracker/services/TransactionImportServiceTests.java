@@ -0,0 +1,154 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.BulkImportErrorDto;
+import com.tipomeow.financial_tracker.dto.BulkImportResultDto;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@LedgerTest
+class TransactionImportServiceTests {
+
+	@Autowired
+	private TransactionImportService transactionImportService;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Autowired
+	private CategoryCache categoryCache;
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void invalidRowsAreReportedAndTheRestInserted() {
+		CategoryDto category = fixtures.category("Import validation");
+		String body = String.join("\n",
+				row(category.getId(), "Valid", "10.00"),
+				"{\"description\":\"No category\",\"amount\":1.00}",
+				row(999_999L, "Unknown category", "1.00"),
+				row(category.getId(), "Negative", "-1.00"),
+				row(category.getId(), "Sub-cent", "1.005"),
+				row(category.getId(), "x".repeat(101), "1.00"),
+				"{\"categoryId\":" + category.getId() + ",\"description\":\"No amount\"}",
+				row(category.getId(), "Also valid", "2.50"));
+
+		BulkImportResultDto result = transactionImportService.importNdjson(stream(body));
+
+		assertThat(result.getReceived()).isEqualTo(8);
+		assertThat(result.getInserted()).isEqualTo(2);
+		assertThat(result.getFailed()).isEqualTo(6);
+		assertThat(result.getErrors()).extracting(BulkImportErrorDto::getRow).containsExactly(2L, 3L, 4L, 5L, 6L, 7L);
+		assertThat(result.getErrors()).extracting(BulkImportErrorDto::getMessage).containsExactly(
+				"Category id cannot be null",
+				"Category not found with id: 999999",
+				"Amount out of range: -1.00",
+				"Amount out of range: 1.005",
+				"Description longer than 100 characters",
+				"Amount cannot be null");
+		assertThat(rows(category.getId())).isEqualTo(2);
+	}
+
+	@Test
+	void malformedNdjsonLinesAreRejectedOneByOne() {
+		CategoryDto category = fixtures.category("Import NDJSON");
+		String body = String.join("\n",
+				row(category.getId(), "First", "1.00"),
+				"{\"categoryId\": oops",
+				"",
+				row(category.getId(), "Second", "2.00"),
+				"[1, 2]",
+				row(category.getId(), "Third", "3.00"));
+
+		BulkImportResultDto result = transactionImportService.importNdjson(stream(body));
+
+		// Blank lines are not rows
+		assertThat(result.getReceived()).isEqualTo(5);
+		assertThat(result.getInserted()).isEqualTo(3);
+		assertThat(result.getFailed()).isEqualTo(2);
+		assertThat(result.getErrors()).extracting(BulkImportErrorDto::getRow).containsExactly(2L, 4L);
+		assertThat(result.getErrors()).allSatisfy(error -> assertThat(error.getMessage()).startsWith("Malformed JSON"));
+		assertThat(rows(category.getId())).isEqualTo(3);
+	}
+
+	@Test
+	void malformedJsonArrayAbortsTheRemainingRows() {
+		CategoryDto category = fixtures.category("Import array");
+		String body = "[" + row(category.getId(), "First", "1.00") + ","
+				+ row(category.getId(), "Second", "2.00") + ","
+				+ row(category.getId(), "Third", "3.00") + ","
+				+ "{\"categoryId\": oops}, "
+				+ row(category.getId(), "Never read", "4.00") + "]";
+
+		BulkImportResultDto result = transactionImportService.importJsonArray(stream(body));
+
+		// The first chunk of two committed before the parser failed, the third row is flushed at the abort
+		assertThat(result.getReceived()).isEqualTo(3);
+		assertThat(result.getInserted()).isEqualTo(3);
+		assertThat(result.getFailed()).isZero();
+		assertThat(result.getErrors()).singleElement().satisfies(error -> {
+			assertThat(error.getRow()).isEqualTo(4L);
+			assertThat(error.getMessage()).startsWith("Malformed JSON, remaining rows skipped");
+		});
+		assertThat(rows(category.getId())).isEqualTo(3);
+	}
+
+	@Test
+	void failingChunkRollsBackAloneWithItsRollupDelta() {
+		CategoryDto kept = fixtures.category("Import kept");
+		CategoryDto removed = fixtures.category("Import removed");
+		// The cached category list still holds the removed category, so its rows pass validation and the
+		// insert itself fails on the foreign key
+		assertThat(categoryCache.findAll()).extracting(CategoryDto::getId).contains(removed.getId());
+		jdbcTemplate.update("DELETE FROM categories WHERE id = ?", removed.getId());
+		try {
+			String body = String.join("\n",
+					row(kept.getId(), "Chunk one", "1.00"),
+					row(kept.getId(), "Chunk one", "2.00"),
+					row(removed.getId(), "Chunk two", "3.00"),
+					row(kept.getId(), "Chunk two", "4.00"),
+					row(kept.getId(), "Chunk three", "5.00"));
+
+			BulkImportResultDto result = transactionImportService.importNdjson(stream(body));
+
+			assertThat(result.getReceived()).isEqualTo(5);
+			assertThat(result.getInserted()).isEqualTo(3);
+			assertThat(result.getFailed()).isEqualTo(2);
+			assertThat(result.getErrors()).extracting(BulkImportErrorDto::getRow).containsExactly(3L, 4L);
+			assertThat(result.getErrors()).allSatisfy(error ->
+					assertThat(error.getMessage()).startsWith("Chunk rolled back"));
+			assertThat(jdbcTemplate.queryForList("SELECT amount FROM transactions WHERE category_id = ? ORDER BY amount",
+					String.class, kept.getId())).containsExactly("1.00", "2.00", "5.00");
+			assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+		} finally {
+			categoryCache.invalidate();
+		}
+	}
+
+	private int rows(Long categoryId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE category_id = ?",
+				Integer.class, categoryId);
+	}
+
+	private static String row(Long categoryId, String description, String amount) {
+		return "{\"categoryId\":" + categoryId + ",\"description\":\"" + description + "\",\"amount\":" + amount
+				+ ",\"time\":\"2030-01-15T12:00:00Z\"}";
+	}
+
+	private static InputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
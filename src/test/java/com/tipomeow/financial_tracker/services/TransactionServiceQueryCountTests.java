@@ -0,0 +1,54 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerTest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The seed rows are enough, and the counts only hold while nothing sits in the archive table
+@LedgerTest
+class TransactionServiceQueryCountTests {
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void resetStatistics() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void getAllTransactionsIssuesSingleStatement() {
+		assertThat(transactionService.getAllTransactions()).isNotEmpty();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getTransactionsByCategoryIssuesSingleStatement() {
+		assertThat(transactionService.getTransactionsByCategory(3L)).isNotEmpty();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getTransactionsPageIssuesSingleStatement() {
+		assertThat(transactionService.getTransactionsPage(null, 3).getTransactions()).hasSize(3);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getCategoryExpenseSummaryIssuesSingleStatement() {
+		assertThat(transactionService.getCategoryExpenseSummary()).isNotEmpty();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,207 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.BatchUpdateRequestDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionPageDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.dto.TransactionSearchRequestDto;
+import com.tipomeow.financial_tracker.entity.CategoryType;
+import com.tipomeow.financial_tracker.exception.BusinessLogicException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Every search word here is unique to its test, so searches without a category filter see no other rows
+@LedgerTest
+class TransactionTextSearchTests {
+
+	private static final Instant TIME = Instant.parse("2035-05-01T12:00:00Z");
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private TransactionTextIndex transactionTextIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Test
+	void exactWordsRankAbovePrefixesAndEveryWordMustMatch() {
+		Long categoryId = fixtures.category("Search ranking").getId();
+		TransactionDto exact = create(categoryId, "Quokka espresso", 0);
+		TransactionDto prefix = create(categoryId, "Quokkaland espresso bar", 1);
+		create(categoryId, "Quokka only", 2);
+
+		assertThat(ids(search("quokka espresso", new TransactionSearchRequestDto())))
+				.containsExactly(exact.getId(), prefix.getId());
+		assertThat(ids(search("QUOKK", new TransactionSearchRequestDto()))).hasSize(3);
+	}
+
+	@Test
+	void categoryTypeDateAndAmountFiltersApply() {
+		Long market = fixtures.category("Search market").getId();
+		Long payroll = fixtures.category("Search payroll", CategoryType.INCOME).getId();
+		Long taxi = fixtures.category("Search taxi").getId();
+		TransactionDto food = create(market, "Wombat market", 0);
+		TransactionDto salary = create(payroll, "Wombat payroll", 1);
+		TransactionDto later = create(taxi, "Wombat taxi", 3600);
+
+		TransactionSearchRequestDto expenses = new TransactionSearchRequestDto();
+		expenses.setType(CategoryType.EXPENSE);
+		assertThat(ids(search("wombat", expenses))).containsExactly(later.getId(), food.getId());
+
+		TransactionSearchRequestDto beforeLater = new TransactionSearchRequestDto();
+		beforeLater.setTo(TIME.plusSeconds(3600));
+		beforeLater.setCategoryIds(List.of(payroll, taxi));
+		assertThat(ids(search("wombat", beforeLater))).containsExactly(salary.getId());
+
+		TransactionSearchRequestDto cheap = new TransactionSearchRequestDto();
+		cheap.setMaxAmount(new BigDecimal("10.00"));
+		assertThat(ids(search("wombat", cheap))).containsExactly(food.getId());
+	}
+
+	@Test
+	void pagesFollowTheRankingWithoutGapsOrRepeats() {
+		Long categoryId = fixtures.category("Search pages").getId();
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			expected.add(0, create(categoryId, "Platypus ticket " + i, i).getId());
+		}
+		// Newest, but only a prefix match, so it ranks after every exact match
+		expected.add(create(categoryId, "Platypusfan club", 60).getId());
+
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			TransactionPageDto page = transactionService.searchText("platypus", new TransactionSearchRequestDto(),
+					cursor, 3);
+			seen.addAll(ids(page));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		assertThat(seen).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void indexFollowsUpdatesBatchUpdatesAndDeletes() {
+		Long categoryId = fixtures.category("Search updates").getId();
+		TransactionDto single = create(categoryId, "Echidna invoice", 0);
+		TransactionDto batched = create(categoryId, "Echidna refund", 1);
+
+		transactionService.updateTransaction(single.getId(), request(categoryId, "Numbat invoice", 0));
+		assertThat(ids(search("echidna", new TransactionSearchRequestDto()))).containsExactly(batched.getId());
+		assertThat(ids(search("numbat", new TransactionSearchRequestDto()))).containsExactly(single.getId());
+
+		BatchUpdateRequestDto batch = new BatchUpdateRequestDto();
+		batch.setIds(List.of(batched.getId()));
+		batch.setDescription("Bilby refund");
+		transactionService.updateTransactions(batch);
+		assertThat(ids(search("echidna", new TransactionSearchRequestDto()))).isEmpty();
+		assertThat(ids(search("bilby", new TransactionSearchRequestDto()))).containsExactly(batched.getId());
+
+		transactionService.deleteTransaction(single.getId());
+		assertThat(ids(search("numbat", new TransactionSearchRequestDto()))).isEmpty();
+	}
+
+	@Test
+	void rebuildIndexesRowsWrittenAroundTheServices() {
+		Long categoryId = insertAroundTheServices("Cassowary console insert");
+		try {
+			assertThat(transactionTextIndex.isInSync()).isFalse();
+			assertThat(ids(search("cassowary", new TransactionSearchRequestDto()))).isEmpty();
+
+			transactionTextIndex.rebuild();
+
+			assertThat(transactionTextIndex.isInSync()).isTrue();
+			assertThat(ids(search("cassowary", new TransactionSearchRequestDto()))).hasSize(1);
+		} finally {
+			deleteAroundTheServices(categoryId);
+		}
+	}
+
+	@Test
+	void startupCheckIndexesTheNewestRowsWrittenAroundTheServices() {
+		Long categoryId = insertAroundTheServices("Kookaburra data load");
+		try {
+			transactionTextIndex.rebuildIfOutOfSync();
+
+			assertThat(ids(search("kookaburra", new TransactionSearchRequestDto()))).hasSize(1);
+		} finally {
+			deleteAroundTheServices(categoryId);
+		}
+	}
+
+	@Test
+	void searchesDuringARebuildSeeTheWholeIndex() {
+		Long categoryId = fixtures.category("Search rebuild").getId();
+		for (int i = 0; i < 5; i++) {
+			create(categoryId, "Dingo fare " + i, 100 + i);
+		}
+		CompletableFuture<?> rebuilds = CompletableFuture.runAsync(() -> {
+			for (int i = 0; i < 5; i++) {
+				transactionTextIndex.rebuild();
+			}
+		});
+		while (!rebuilds.isDone()) {
+			assertThat(ids(search("dingo", new TransactionSearchRequestDto()))).hasSize(5);
+		}
+		rebuilds.join();
+
+		// Writes reach the swapped-in table
+		create(categoryId, "Dingo fare late", 200);
+		assertThat(ids(search("dingo", new TransactionSearchRequestDto()))).hasSize(6);
+		assertThat(transactionTextIndex.isInSync()).isTrue();
+	}
+
+	@Test
+	void queriesWithoutWordsAreRejected() {
+		assertThatThrownBy(() -> search("  a ! ", new TransactionSearchRequestDto()))
+				.isInstanceOf(BusinessLogicException.class);
+	}
+
+	private TransactionPageDto search(String query, TransactionSearchRequestDto criteria) {
+		return transactionService.searchText(query, criteria, null, 50);
+	}
+
+	private static List<Long> ids(TransactionPageDto page) {
+		return page.getTransactions().stream().map(TransactionDto::getId).toList();
+	}
+
+	// Like a console edit or a data load: the row gets no search tokens and no rollup, rollup and analytics
+	// changes, so it is deleted the same way once the test is done
+	private Long insertAroundTheServices(String description) {
+		Long categoryId = fixtures.category("Search console").getId();
+		jdbcTemplate.update("INSERT INTO transactions (category_id, description, amount, time) "
+				+ "VALUES (?, ?, 1.00, TIMESTAMP WITH TIME ZONE '2035-06-01 00:00:00+00')", categoryId, description);
+		return categoryId;
+	}
+
+	private void deleteAroundTheServices(Long categoryId) {
+		jdbcTemplate.update("DELETE FROM transactions WHERE category_id = ?", categoryId);
+	}
+
+	private TransactionDto create(Long categoryId, String description, int seconds) {
+		return transactionService.createTransaction(request(categoryId, description, seconds));
+	}
+
+	// Only the first row of a test is cheap enough for the amount filter
+	private static TransactionRequestDto request(Long categoryId, String description, int seconds) {
+		return transaction(categoryId).description(description).amount(seconds == 0 ? "5.00" : "25.00")
+				.at(TIME.plusSeconds(seconds)).build();
+	}
+}
@@ -0,0 +1,113 @@
+package com.tipomeow.financial_tracker.services;
+
+import com.tipomeow.financial_tracker.LedgerFixtures;
+import com.tipomeow.financial_tracker.LedgerTest;
+import com.tipomeow.financial_tracker.dto.CategoryDto;
+import com.tipomeow.financial_tracker.dto.TransactionDto;
+import com.tipomeow.financial_tracker.dto.TransactionRequestDto;
+import com.tipomeow.financial_tracker.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.tipomeow.financial_tracker.LedgerFixtures.transaction;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@LedgerTest
+class TransactionWritePipelineTests {
+
+	private static final Instant TIME = Instant.parse("2034-02-01T10:00:00Z");
+
+	@Autowired
+	private TransactionWritePipeline writePipeline;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private LedgerRollupService ledgerRollupService;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private LedgerFixtures fixtures;
+
+	@Test
+	void concurrentCreatesAreGroupedAndEachCallerGetsItsRow() {
+		CategoryDto category = fixtures.category("Pipeline grouped");
+		List<CompletableFuture<TransactionDto>> futures = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			futures.add(writePipeline.submit(request(category.getId(), "Grouped " + i, i)));
+		}
+
+		for (int i = 0; i < futures.size(); i++) {
+			TransactionDto created = futures.get(i).join();
+			assertThat(created.getDescription()).isEqualTo("Grouped " + i);
+			TransactionDto stored = transactionService.getTransactionById(created.getId());
+			assertThat(stored.getAmount()).isEqualByComparingTo(created.getAmount());
+			assertThat(stored.getCategoryName()).isEqualTo(category.getName());
+		}
+		assertThat(futures.stream().map(future -> future.join().getId()).distinct()).hasSize(200);
+		DistributionSummary batchSizes = meterRegistry.get("financial.tracker.write.pipeline.batch.size").summary();
+		assertThat(batchSizes.max()).isGreaterThan(1);
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+	}
+
+	@Test
+	void groupedCreatesRecordOneEventPerRowWithItsPayload() {
+		CategoryDto category = fixtures.category("Pipeline events");
+		List<CompletableFuture<TransactionDto>> futures = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			futures.add(writePipeline.submit(request(category.getId(), "Evented " + i, i)));
+		}
+
+		for (CompletableFuture<TransactionDto> future : futures) {
+			TransactionDto created = future.join();
+			List<String> payloads = jdbcTemplate.queryForList("SELECT payload FROM change_events " +
+					"WHERE aggregate_type = 'TRANSACTION' AND aggregate_id = ? AND operation = 'CREATED'",
+					String.class, created.getId());
+			assertThat(payloads).singleElement().satisfies(payload -> {
+				assertThat(payload).contains("\"description\":\"" + created.getDescription() + "\"");
+				assertThat(payload).contains("\"categoryName\":\"" + category.getName() + "\"");
+			});
+		}
+	}
+
+	@Test
+	void failingRowOnlyFailsItsOwnCaller() {
+		Long categoryId = fixtures.category("Pipeline failing row").getId();
+		CompletableFuture<TransactionDto> before = writePipeline.submit(request(categoryId, "Before", 1));
+		CompletableFuture<TransactionDto> tooLong = writePipeline.submit(request(categoryId, "x".repeat(150), 2));
+		CompletableFuture<TransactionDto> after = writePipeline.submit(request(categoryId, "After", 3));
+
+		assertThat(before.join().getId()).isNotNull();
+		assertThat(after.join().getId()).isNotNull();
+		assertThat(tooLong).isCompletedExceptionally();
+		assertThat(ledgerRollupService.verify().isConsistent()).isTrue();
+	}
+
+	@Test
+	void unknownCategoryIsRejectedBeforeQueueing() {
+		assertThatThrownBy(() -> writePipeline.submit(request(999_999L, "Nowhere", 1)))
+				.isInstanceOf(ResourceNotFoundException.class);
+	}
+
+	// The n-th request of a test differs in amount and time, so rows can be told apart
+	private static TransactionRequestDto request(Long categoryId, String description, int n) {
+		return transaction(categoryId).description(description).amount(BigDecimal.valueOf(1000 + n, 2))
+				.at(TIME.plusSeconds(n)).build();
+	}
+}